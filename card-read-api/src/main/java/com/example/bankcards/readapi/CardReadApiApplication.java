@@ -0,0 +1,13 @@
+package com.example.bankcards.readapi;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class CardReadApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(CardReadApiApplication.class, args);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.readapi.config;
+
+import com.example.bankcards.readapi.security.JwtAuthenticationWebFilter;
+import com.example.bankcards.readapi.security.UserSecurityEpochs;
+import com.example.bankcards.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Только чтение: {@code GET /api/cards} и {@code GET /api/cards/{cardId}/balance} для роли USER,
+ * всё остальное обслуживает основное приложение.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@Import(JwtTokenProvider.class)
+public class SecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtTokenProvider jwtTokenProvider,
+                                                         UserSecurityEpochs userSecurityEpochs,
+                                                         MeterRegistry meterRegistry) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(exchanges -> exchanges
+                        .matchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/cards", "/api/cards/*/balance").hasRole("USER")
+                        .anyExchange().denyAll())
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtTokenProvider, userSecurityEpochs, meterRegistry),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
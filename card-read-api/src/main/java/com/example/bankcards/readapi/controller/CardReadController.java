@@ -0,0 +1,41 @@
+package com.example.bankcards.readapi.controller;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.readapi.service.CardReadService;
+import com.example.bankcards.security.AuthenticatedUser;
+import org.springframework.data.domain.Page;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/cards")
+public class CardReadController {
+
+    private final CardReadService cardReadService;
+
+    public CardReadController(CardReadService cardReadService) {
+        this.cardReadService = cardReadService;
+    }
+
+    @GetMapping
+    public Mono<Page<CardDto>> getUserCards(@AuthenticationPrincipal AuthenticatedUser user,
+                                            @RequestParam(name = "page", defaultValue = "0") int page,
+                                            @RequestParam(name = "size", defaultValue = "10") int size,
+                                            @RequestParam(name = "sort", defaultValue = "ASC") String sort) {
+        return cardReadService.getUserCards(user, page, size, sort);
+    }
+
+    @GetMapping("/{cardId}/balance")
+    public Mono<BigDecimal> getBalance(@AuthenticationPrincipal AuthenticatedUser user,
+                                       @PathVariable(name = "cardId") UUID cardId) {
+        return cardReadService.getBalance(user, cardId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bankcards.readapi.exception;
+
+import com.example.bankcards.exception.CardNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Коды и тело ошибок как у {@code ControllerExceptionHandler} основного приложения, чтобы клиенты
+ * не различали, какой сервис ответил.
+ */
+@RestControllerAdvice
+public class ReadApiExceptionHandler {
+
+    @ExceptionHandler({CardNotFoundException.class})
+    public ResponseEntity<Object> cardNotFoundExceptionHandler(final CardNotFoundException ex) {
+        return respond(ex, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler({ResponseStatusException.class})
+    public ResponseEntity<Object> responseStatusExceptionHandler(final ResponseStatusException ex) {
+        return respond(ex, ex.getStatusCode());
+    }
+
+    // Чужая карта и неверные параметры страницы — 400, как в основном приложении
+    @ExceptionHandler({RuntimeException.class})
+    public ResponseEntity<Object> runtimeExceptionHandler(final RuntimeException ex) {
+        return respond(ex, HttpStatus.BAD_REQUEST);
+    }
+
+    private static ResponseEntity<Object> respond(RuntimeException ex, HttpStatusCode status) {
+        final Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now().toString());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, status);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bankcards.readapi.repository;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Чтение карт через R2DBC по той же схеме, что и JPA-репозиторий основного приложения.
+ * Списки, как и в основном приложении, показывают снимок баланса; запрос баланса карты добавляет к снимку
+ * не свёрнутые проводки {@code card_ledger}, как {@code Card.getEffectiveBalance()}.
+ */
+@Repository
+public class CardReadRepository {
+
+    private static final String PENDING_LEDGER_DELTA =
+            "coalesce((select sum(l.amount) from card_ledger l where l.card_id = c.id and l.folded = false), 0)";
+
+    private static final String FIND_BY_OWNER =
+            "select c.last4, u.username, c.expiry_month, c.expiry_year, c.status, c.balance " +
+                    "from card c join users u on u.id = c.owner_id where c.owner_id = :ownerId";
+    private static final String COUNT_BY_OWNER = "select count(*) from card where owner_id = :ownerId";
+    private static final String FIND_BALANCE =
+            "select c.owner_id, c.balance, " + PENDING_LEDGER_DELTA + " as pending_ledger_delta from card c where c.id = :cardId";
+
+    private final DatabaseClient databaseClient;
+
+    public CardReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<CardDto> findCardDtosByOwner(UUID ownerId, Pageable pageable) {
+        String sql = FIND_BY_OWNER + orderBy(pageable.getSort()) + " limit :limit offset :offset";
+        return databaseClient.sql(sql)
+                .bind("ownerId", ownerId)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(row -> new CardDto(
+                        row.get("last4", String.class),
+                        row.get("username", String.class),
+                        row.get("expiry_month", Integer.class),
+                        row.get("expiry_year", Integer.class),
+                        Card.CardStatus.valueOf(row.get("status", String.class)),
+                        money(row, "balance")))
+                .all();
+    }
+
+    public Mono<Long> countByOwner(UUID ownerId) {
+        return databaseClient.sql(COUNT_BY_OWNER)
+                .bind("ownerId", ownerId)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<CardBalance> findBalance(UUID cardId) {
+        return databaseClient.sql(FIND_BALANCE)
+                .bind("cardId", cardId)
+                .map(row -> new CardBalance(
+                        row.get("owner_id", UUID.class),
+                        money(row, "balance").plus(money(row, "pending_ledger_delta"))))
+                .one();
+    }
+
+    // Сортировка только по id (см. SortingUtils), поэтому значение направления подставляется из enum, а не из запроса
+    private static String orderBy(Sort sort) {
+        Sort.Order order = sort.getOrderFor("id");
+        return order == null ? "" : " order by c.id " + order.getDirection().name().toLowerCase();
+    }
+
+    private static Money money(Readable row, String column) {
+        BigDecimal value = row.get(column, BigDecimal.class);
+        return value != null ? Money.of(value) : Money.ZERO;
+    }
+
+    public record CardBalance(UUID ownerId, Money balance) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.readapi.security;
+
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный аналог {@code JwtAuthenticationFilter}: подпись и срок проверяет тот же {@link JwtTokenProvider}
+ * (с кэшем проверенных токенов), пользователь восстанавливается из claims без обращения к БД.
+ * Токены старого формата без claims авторизации здесь не принимаются — их нужно перевыпустить через логин.
+ */
+@Slf4j
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserSecurityEpochs userSecurityEpochs;
+    private final Timer verifyTimer;
+
+    public JwtAuthenticationWebFilter(JwtTokenProvider jwtTokenProvider,
+                                      UserSecurityEpochs userSecurityEpochs,
+                                      MeterRegistry meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userSecurityEpochs = userSecurityEpochs;
+        this.verifyTimer = Timer.builder("auth.jwt.filter")
+                .description("JWT authentication filter: token verification and user resolution")
+                .tag("phase", "verify")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (!StringUtils.hasText(bearerToken) || !bearerToken.startsWith(BEARER_PREFIX)) {
+            return chain.filter(exchange);
+        }
+        // Проверка HMAC и разбор claims — короткая CPU-работа, её можно выполнять на event loop
+        Claims claims = verifyTimer.record(() -> jwtTokenProvider.extractVerifiedClaims(bearerToken.substring(BEARER_PREFIX.length())));
+        AuthenticatedUser user = claims != null ? jwtTokenProvider.toAuthenticatedUser(claims) : null;
+        if (user == null) {
+            return chain.filter(exchange);
+        }
+        return userSecurityEpochs.isCurrent(user.id(), jwtTokenProvider.extractSecurityEpoch(claims))
+                .flatMap(current -> {
+                    if (!current) {
+                        log.debug("JWT security epoch is outdated for user {}", user.username());
+                        return chain.filter(exchange);
+                    }
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(user, null, user.authorities());
+                    return chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                });
+    }
+}
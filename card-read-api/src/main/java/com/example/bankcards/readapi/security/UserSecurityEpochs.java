@@ -0,0 +1,131 @@
+package com.example.bankcards.readapi.security;
+
+import com.example.bankcards.security.UserSecurityEpochTable;
+import com.example.bankcards.security.UserSecurityEvent;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Эпохи безопасности пользователей в общей с основным приложением {@link UserSecurityEpochTable}: токен действителен,
+ * только если его эпоха не меньше текущей. Таблица периодически перечитывается из {@code users}; при
+ * {@code security.user-cache.broadcaster=postgres} изменения приходят сразу через LISTEN на канале основного приложения.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+public class UserSecurityEpochs {
+
+    private static final String LOAD_EPOCHS = "select id, security_epoch from users where security_epoch > 0";
+
+    private final DatabaseClient databaseClient;
+    private final ConnectionFactory connectionFactory;
+    private final Duration refreshInterval;
+    private final boolean listen;
+    private final UserSecurityEpochTable epochs = new UserSecurityEpochTable();
+    // Первая загрузка: проверки токенов ждут её, не блокируя поток, чтобы отозванные токены не прошли в окно старта
+    private final Mono<Void> initialLoad;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public UserSecurityEpochs(DatabaseClient databaseClient,
+                              ConnectionFactory connectionFactory,
+                              @Value("${security.epochs.refresh-interval:5s}") Duration refreshInterval,
+                              @Value("${security.user-cache.broadcaster:in-process}") String broadcaster) {
+        this.databaseClient = databaseClient;
+        this.connectionFactory = connectionFactory;
+        this.refreshInterval = refreshInterval;
+        this.listen = "postgres".equals(broadcaster);
+        this.initialLoad = load()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("User security epochs load failed: {}", signal.failure().getMessage())))
+                .cache();
+    }
+
+    @PostConstruct
+    void start() {
+        subscriptions.add(initialLoad.subscribe());
+        subscriptions.add(Flux.interval(refreshInterval, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> load()
+                        .onErrorResume(e -> {
+                            log.warn("User security epochs refresh failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe());
+        if (listen) {
+            subscriptions.add(notifications()
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                            .doBeforeRetry(signal -> log.warn("Lost {} listener: {}", UserSecurityEvent.CHANNEL, signal.failure().getMessage())))
+                    .subscribe(this::onEvent));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        subscriptions.dispose();
+    }
+
+    public Mono<Boolean> isCurrent(UUID userId, long tokenEpoch) {
+        return initialLoad.then(Mono.fromSupplier(() -> epochs.isCurrent(userId, tokenEpoch)));
+    }
+
+    public void advance(UUID userId, long epoch) {
+        epochs.advance(userId, epoch);
+    }
+
+    Mono<Void> load() {
+        return databaseClient.sql(LOAD_EPOCHS)
+                .map(row -> Map.entry(row.get("id", UUID.class), row.get("security_epoch", Long.class)))
+                .all()
+                .doOnNext(entry -> advance(entry.getKey(), entry.getValue()))
+                .then();
+    }
+
+    // Соединение из пула занято всё время прослушивания: LISTEN привязан к сессии
+    private Flux<UserSecurityEvent> notifications() {
+        return Flux.usingWhen(connectionFactory.create(),
+                connection -> {
+                    PostgresqlConnection postgres = unwrap(connection);
+                    return postgres.createStatement("LISTEN " + UserSecurityEvent.CHANNEL).execute()
+                            .flatMap(PostgresqlResult::getRowsUpdated)
+                            .thenMany(postgres.getNotifications())
+                            .mapNotNull(notification -> notification.getParameter())
+                            .map(UserSecurityEvent::decode);
+                },
+                Connection::close);
+    }
+
+    private void onEvent(UserSecurityEvent event) {
+        advance(event.userId(), event.securityEpoch());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Connection target = connection;
+        while (!(target instanceof PostgresqlConnection) && target instanceof Wrapped<?> wrapped) {
+            target = ((Wrapped<Connection>) wrapped).unwrap();
+        }
+        if (!(target instanceof PostgresqlConnection postgres)) {
+            throw new IllegalStateException("security.user-cache.broadcaster=postgres requires a PostgreSQL R2DBC connection");
+        }
+        return postgres;
+    }
+}
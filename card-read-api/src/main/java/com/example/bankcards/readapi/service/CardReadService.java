@@ -0,0 +1,51 @@
+package com.example.bankcards.readapi.service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.readapi.repository.CardReadRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.util.SortingUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Те же правила, что у {@code CardServiceImpl.getUserCards} и {@code getBalance}: только свои карты,
+ * страница и сортировка по id.
+ */
+@Service
+public class CardReadService {
+
+    private final CardReadRepository cardReadRepository;
+
+    public CardReadService(CardReadRepository cardReadRepository) {
+        this.cardReadRepository = cardReadRepository;
+    }
+
+    public Mono<Page<CardDto>> getUserCards(AuthenticatedUser user, int page, int size, String sort) {
+        Pageable pageable = PageRequest.of(page, size, SortingUtils.getSort(sort));
+        return Mono.zip(
+                        cardReadRepository.findCardDtosByOwner(user.id(), pageable).collectList(),
+                        cardReadRepository.countByOwner(user.id()))
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    public Mono<BigDecimal> getBalance(AuthenticatedUser user, UUID cardId) {
+        return cardReadRepository.findBalance(cardId)
+                .switchIfEmpty(Mono.error(() -> new CardNotFoundException("Card not found: " + cardId)))
+                .handle((card, sink) -> {
+                    if (!card.ownerId().equals(user.id())) {
+                        sink.error(new AccessDeniedException("Access denied"));
+                        return;
+                    }
+                    sink.next(card.balance().toBigDecimal());
+                });
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.bankcards.readapi;
+
+import com.example.bankcards.readapi.security.UserSecurityEpochs;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class CardReadControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserSecurityEpochs userSecurityEpochs;
+
+    private UUID ownerId;
+    private UUID otherId;
+    private UUID card1;
+    private UUID card2;
+    private UUID otherCard;
+    private String ownerToken;
+
+    @BeforeEach
+    void setUp() {
+        execute("delete from card_ledger");
+        execute("delete from card");
+        execute("delete from users");
+
+        ownerId = user("user");
+        otherId = user("other");
+        card1 = card(ownerId, "00000000-0000-7000-8000-000000000001", "4444", "1000.00");
+        card2 = card(ownerId, "00000000-0000-7000-8000-000000000002", "8888", "500.00");
+        otherCard = card(otherId, "00000000-0000-7000-8000-000000000003", "1234", "10.00");
+        ledger(card1, "-100.00", false);
+        ledger(card1, "-900.00", true);
+
+        ownerToken = token(ownerId, "user", 0);
+    }
+
+    @Test
+    void getUserCards_shouldReturnOwnMaskedCardsWithSnapshotBalance() {
+        webTestClient.get().uri("/api/cards?page=0&size=10&sort=DESC")
+                .header("Authorization", "Bearer " + ownerToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(2)
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].cardMask").isEqualTo("**** **** **** 8888")
+                .jsonPath("$.content[1].cardMask").isEqualTo("**** **** **** 4444")
+                .jsonPath("$.content[1].owner").isEqualTo("user")
+                .jsonPath("$.content[1].status").isEqualTo("ACTIVE")
+                .jsonPath("$.content[1].balance").isEqualTo(1000.00);
+    }
+
+    @Test
+    void getUserCards_shouldPage() {
+        webTestClient.get().uri("/api/cards?page=1&size=1")
+                .header("Authorization", "Bearer " + ownerToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(2)
+                .jsonPath("$.totalPages").isEqualTo(2)
+                .jsonPath("$.content[0].cardMask").isEqualTo("**** **** **** 8888");
+    }
+
+    @Test
+    void getBalance_ownCard_shouldIncludePendingLedger() {
+        webTestClient.get().uri("/api/cards/{cardId}/balance", card1)
+                .header("Authorization", "Bearer " + ownerToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BigDecimal.class).isEqualTo(new BigDecimal("900.00"));
+    }
+
+    @Test
+    void getBalance_otherOwnersCard_shouldBeRejected() {
+        webTestClient.get().uri("/api/cards/{cardId}/balance", otherCard)
+                .header("Authorization", "Bearer " + ownerToken)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Access denied");
+    }
+
+    @Test
+    void getBalance_unknownCard_shouldReturnNotFound() {
+        webTestClient.get().uri("/api/cards/{cardId}/balance", UUID.randomUUID())
+                .header("Authorization", "Bearer " + ownerToken)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getUserCards_withoutToken_shouldBeUnauthorized() {
+        webTestClient.get().uri("/api/cards")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void getUserCards_withOutdatedSecurityEpoch_shouldBeUnauthorized() {
+        userSecurityEpochs.advance(ownerId, 1);
+
+        webTestClient.get().uri("/api/cards")
+                .header("Authorization", "Bearer " + ownerToken)
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/cards")
+                .header("Authorization", "Bearer " + token(ownerId, "user", 1))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void writeEndpoints_shouldBeDenied() {
+        webTestClient.post().uri("/api/cards/transfer")
+                .header("Authorization", "Bearer " + ownerToken)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private String token(UUID userId, String username, long securityEpoch) {
+        return jwtTokenProvider.generateToken(
+                new AuthenticatedUser(userId, username, User.UserStatus.ACTIVE, Set.of("ROLE_USER")), securityEpoch);
+    }
+
+    private UUID user(String username) {
+        UUID id = UUID.randomUUID();
+        databaseClient.sql("insert into users (id, username, password, status) values (:id, :username, 'password', 'ACTIVE')")
+                .bind("id", id)
+                .bind("username", username)
+                .then()
+                .block();
+        return id;
+    }
+
+    private UUID card(UUID ownerId, String id, String last4, String balance) {
+        UUID cardId = UUID.fromString(id);
+        databaseClient.sql("insert into card (id, owner_id, card_number_enc, last4, holder_name, expiry_month, expiry_year, status, balance, currency) " +
+                        "values (:id, :ownerId, 'enc', :last4, 'holderName', 12, 2030, 'ACTIVE', :balance, 'USD')")
+                .bind("id", cardId)
+                .bind("ownerId", ownerId)
+                .bind("last4", last4)
+                .bind("balance", new BigDecimal(balance))
+                .then()
+                .block();
+        return cardId;
+    }
+
+    private void ledger(UUID cardId, String amount, boolean folded) {
+        databaseClient.sql("insert into card_ledger (card_id, transfer_id, amount, folded) values (:cardId, :transferId, :amount, :folded)")
+                .bind("cardId", cardId)
+                .bind("transferId", UUID.randomUUID())
+                .bind("amount", new BigDecimal(amount))
+                .bind("folded", folded)
+                .then()
+                .block();
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
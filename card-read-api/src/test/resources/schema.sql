@@ -0,0 +1,30 @@
+-- Подмножество схемы основного приложения (Liquibase 001, 003, 004, 006), которое читает модуль
+create table if not exists users (
+    id uuid primary key,
+    username varchar(50) not null unique,
+    password varchar(255) not null,
+    status varchar(20) not null,
+    security_epoch bigint default 0 not null
+);
+
+create table if not exists card (
+    id uuid primary key,
+    owner_id uuid not null references users (id),
+    card_number_enc varchar(512) not null,
+    last4 char(4) not null,
+    holder_name varchar(100) not null,
+    expiry_month int not null,
+    expiry_year int not null,
+    status varchar(20) not null,
+    balance decimal(19, 2) not null,
+    currency char(3) not null
+);
+
+create table if not exists card_ledger (
+    id bigint generated by default as identity primary key,
+    card_id uuid not null references card (id),
+    transfer_id uuid not null,
+    amount decimal(19, 2) not null,
+    folded boolean default false not null,
+    created_at timestamp with time zone default current_timestamp not null
+);
@@ -0,0 +1,23 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики Hibernate, включая кэш второго уровня: hibernate.second.level.cache.requests{region,result},
+ * hibernate.cache.natural.id.requests{result} и др. Публикуются, только когда
+ * включена {@code hibernate.generate_statistics} (переменная HIBERNATE_STATISTICS_ENABLED).
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty());
+    }
+}
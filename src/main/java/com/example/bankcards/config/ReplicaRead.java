@@ -0,0 +1,21 @@
+package com.example.bankcards.config;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read-only транзакция, которой допустимо читать с реплики с отставанием до {@code datasource.replicas.max-lag}.
+ * Остальные чтения, включая {@code @Transactional(readOnly = true)} без этой пометки и методы Spring Data вне транзакции,
+ * идут на primary: вход, проверка идемпотентности и загрузка эпох безопасности не должны видеть устаревшие данные.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,29 @@
+package com.example.bankcards.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Разрешает маршрутизацию на реплику на время метода с {@link ReplicaRead}.
+ * Выполняется снаружи транзакции, чтобы признак был выставлен до первого запроса.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.example.bankcards.config.ReplicaRead) || @within(com.example.bankcards.config.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReplicaRoutingDataSource.isReplicaRead()) {
+            return joinPoint.proceed();
+        }
+        ReplicaRoutingDataSource.setReplicaRead(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.setReplicaRead(false);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Направляет на реплики read-only транзакции методов с {@link ReplicaRead}, остальные — на primary.
+ * Реплика с отставанием больше {@code maxLag} или недоступная по проверке исключается до следующей проверки;
+ * если доступных реплик нет, чтение идёт на primary.
+ * <p>
+ * Признак read-only известен только после начала транзакции, поэтому источник нужно оборачивать
+ * в {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    // Отставание реплики PostgreSQL; без догоняемого WAL реплика актуальна, даже если primary давно не писал
+    private static final String POSTGRES_LAG_QUERY = """
+            select case when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end
+            """;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+
+    // Выставляется ReplicaReadAspect: одного признака read-only недостаточно, его ставят и чтения, требующие свежих данных
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final Duration maxLag;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<HikariDataSource> replicas,
+                                    Selection selection,
+                                    Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.selection = selection;
+        this.maxLag = maxLag;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.key(), replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.primaryConnections = routingCounter(meterRegistry, "primary");
+        this.replicaConnections = routingCounter(meterRegistry, "replica");
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only connections sent to the primary because no replica was available")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReplicaRead() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        Replica replica = selectReplica();
+        if (replica == null) {
+            fallbacks.increment();
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        replicaConnections.increment();
+        return replica.key();
+    }
+
+    /**
+     * Проверяет доступность и отставание реплик. На PostgreSQL отставание считается по времени
+     * последней применённой транзакции, на остальных БД — только доступность соединения.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available = isAvailable(replica);
+            if (available != replica.available) {
+                log.warn("Replica {} is {}", replica.key(), available ? "back in rotation" : "excluded from rotation");
+            }
+            replica.available = available;
+        }
+    }
+
+    static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    static void setReplicaRead(boolean replicaRead) {
+        if (replicaRead) {
+            REPLICA_READ.set(Boolean.TRUE);
+        } else {
+            REPLICA_READ.remove();
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Replica selectReplica() {
+        return switch (selection) {
+            case ROUND_ROBIN -> nextAvailable();
+            case LEAST_CONNECTIONS -> leastConnections();
+        };
+    }
+
+    private Replica nextAvailable() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica leastConnections() {
+        Replica best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            if (!replica.available) {
+                continue;
+            }
+            HikariPoolMXBean pool = replica.dataSource.getHikariPoolMXBean();
+            int active = pool != null ? pool.getActiveConnections() : 0;
+            if (active < bestActive) {
+                best = replica;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private boolean isAvailable(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(POSTGRES_LAG_QUERY)) {
+                double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                return lagSeconds * 1000 <= maxLag.toMillis();
+            }
+        } catch (SQLException e) {
+            log.debug("Replica {} check failed: {}", replica.key(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connections handed out by the read/write routing data source")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean available = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String key() {
+            return dataSource.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Отслеживает закрепление виртуальных потоков на несущем потоке (блокировка внутри {@code synchronized} или native-кадра)
+ * по событию JFR {@code jdk.VirtualThreadPinned}. Длительность попадает в таймер {@code jvm.threads.virtual.pinned},
+ * стек — в лог, один раз на каждое место закрепления.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Ограничение на число запоминаемых мест, чтобы набор не рос бесконечно
+    private static final int MAX_REPORTED_LOCATIONS = 1000;
+
+    private final RecordingStream recordingStream = new RecordingStream();
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+    private final Timer pinnedTimer;
+    private final int stackDepth;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinning.threshold:20ms}") Duration threshold,
+                                       @Value("${virtual-threads.pinning.stack-depth:12}") int stackDepth) {
+        this.stackDepth = stackDepth;
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to a carrier thread while blocked")
+                .register(meterRegistry);
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    }
+
+    @PostConstruct
+    void start() {
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        recordingStream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String location = frames.stream()
+                .limit(stackDepth)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n\tat "));
+        if (reportedLocations.size() < MAX_REPORTED_LOCATIONS && reportedLocations.add(location)) {
+            log.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), location);
+        }
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
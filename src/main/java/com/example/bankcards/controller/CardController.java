@@ -1,17 +1,34 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AsyncTransferStatus;
+import com.example.bankcards.dto.BulkCardDeleteRequest;
+import com.example.bankcards.dto.BulkCardResult;
+import com.example.bankcards.dto.BulkCardStatusRequest;
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardSlice;
 import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResult;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardBulkService;
+import com.example.bankcards.service.CardExportService;
+import com.example.bankcards.service.CardImportService;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.CardTransferService;
+import com.example.bankcards.service.IdempotencyService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -20,18 +37,33 @@ public class CardController {
 
     private final CardService cardService;
     private final CardTransferService cardTransferService;
+    private final CardExportService cardExportService;
+    private final CardImportService cardImportService;
+    private final CardBulkService cardBulkService;
+    private final IdempotencyService idempotencyService;
 
-    public CardController(CardService cardService, CardTransferService cardTransferService) {
+    public CardController(CardService cardService,
+                          CardTransferService cardTransferService,
+                          CardExportService cardExportService,
+                          CardImportService cardImportService,
+                          CardBulkService cardBulkService,
+                          IdempotencyService idempotencyService) {
         this.cardService = cardService;
         this.cardTransferService = cardTransferService;
+        this.cardExportService = cardExportService;
+        this.cardImportService = cardImportService;
+        this.cardBulkService = cardBulkService;
+        this.idempotencyService = idempotencyService;
     }
 
     // ===== ADMIN =====
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public CardDto createCard(@RequestBody @Valid CreateCardRequest request) {
-        return cardService.createCard(request);
+    public CardDto createCard(@RequestBody @Valid CreateCardRequest request,
+                              @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "card.create", request, CardDto.class,
+                () -> cardService.createCard(request));
     }
 
     @PatchMapping("/status")
@@ -47,6 +79,18 @@ public class CardController {
         cardService.deleteCard(cardId);
     }
 
+    @PatchMapping("/bulk/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkCardResult changeCardStatuses(@RequestBody BulkCardStatusRequest request) {
+        return cardBulkService.changeStatus(request);
+    }
+
+    @PostMapping("/bulk/delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkCardResult deleteCards(@RequestBody BulkCardDeleteRequest request) {
+        return cardBulkService.delete(request);
+    }
+
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
     public Page<CardDto> getAllCards(@RequestParam(name = "page", defaultValue = "0") int page,
@@ -55,6 +99,36 @@ public class CardController {
         return cardService.getAllCards(page, size, sort);
     }
 
+    @GetMapping("/all/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CardSlice scrollAllCards(@RequestParam(name = "cursor", required = false) String cursor,
+                                    @RequestParam(name = "size", defaultValue = "10") int size,
+                                    @RequestParam(name = "sort", defaultValue = "ASC") String sort) {
+        return cardService.scrollAllCards(cursor, size, sort);
+    }
+
+    @GetMapping("/all/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportAllCards(@RequestParam(name = "format", defaultValue = "ndjson") String format,
+                               @RequestParam(name = "status", required = false) Card.CardStatus status,
+                               @RequestParam(name = "currency", required = false) String currency,
+                               HttpServletResponse response) throws IOException {
+        CardExportService.Format exportFormat = CardExportService.Format.fromString(format);
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cards." + exportFormat.extension() + "\"");
+        cardExportService.exportCards(status, currency, exportFormat, response.getOutputStream());
+    }
+
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public void importCards(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CardExportService.Format format = CardExportService.Format.fromContentType(request.getContentType());
+        response.setContentType(CardExportService.Format.NDJSON.contentType());
+        response.setCharacterEncoding("UTF-8");
+        cardImportService.importCards(format, request.getInputStream(), response.getOutputStream());
+    }
+
     // ===== USER =====
 
     @GetMapping
@@ -65,6 +139,14 @@ public class CardController {
         return cardService.getUserCards(page, size, sort);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('USER')")
+    public CardSlice scrollUserCards(@RequestParam(name = "cursor", required = false) String cursor,
+                                     @RequestParam(name = "size", defaultValue = "10") int size,
+                                     @RequestParam(name = "sort", defaultValue = "ASC") String sort) {
+        return cardService.scrollUserCards(cursor, size, sort);
+    }
+
     @PostMapping("/{cardId}/block-request")
     @PreAuthorize("hasRole('USER')")
     public CardDto requestBlockCard(@PathVariable(name = "cardId") UUID cardId) {
@@ -74,14 +156,40 @@ public class CardController {
     @GetMapping("/{cardId}/balance")
     @PreAuthorize("hasRole('USER')")
     public BigDecimal getBalance(@PathVariable(name = "cardId") UUID cardId) {
-        return cardService.getBalance(cardId);
+        return cardService.getBalance(cardId).toBigDecimal();
     }
 
     @PostMapping("/transfer")
     @PreAuthorize("hasRole('USER')")
     public void transferBetweenOwnCards(@RequestParam(name = "fromCardId") @NotNull UUID fromCardId,
                                         @RequestParam(name = "toCardId") @NotNull UUID toCardId,
-                                        @RequestParam(name = "amount") @NotNull String amount) {
-        cardTransferService.transferBetweenOwnCards(fromCardId, toCardId, amount);
+                                        @RequestParam(name = "amount") @NotNull String amount,
+                                        @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        idempotencyService.execute(idempotencyKey, "card.transfer", new TransferRequest(fromCardId, toCardId, amount), Void.class,
+                () -> {
+                    cardTransferService.transferBetweenOwnCards(fromCardId, toCardId, amount);
+                    return null;
+                });
+    }
+
+    @PostMapping("/transfer/async")
+    @PreAuthorize("hasRole('USER')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public AsyncTransferStatus submitTransfer(@RequestParam(name = "fromCardId") @NotNull UUID fromCardId,
+                                              @RequestParam(name = "toCardId") @NotNull UUID toCardId,
+                                              @RequestParam(name = "amount") @NotNull String amount) {
+        return cardTransferService.submitTransfer(fromCardId, toCardId, amount);
+    }
+
+    @GetMapping("/transfer/async/{transferId}")
+    @PreAuthorize("hasRole('USER')")
+    public AsyncTransferStatus getTransferStatus(@PathVariable(name = "transferId") UUID transferId) {
+        return cardTransferService.getTransferStatus(transferId);
+    }
+
+    @PostMapping("/transfer/batch")
+    @PreAuthorize("hasRole('USER')")
+    public List<TransferResult> transferBatch(@RequestBody List<TransferRequest> transfers) {
+        return cardTransferService.transferBatch(transfers);
     }
 }
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import java.util.UUID;
+
+/**
+ * Состояние асинхронного перевода, которое клиент опрашивает по {@code transferId}.
+ */
+public record AsyncTransferStatus(UUID transferId, State state, String message) {
+
+    public enum State {
+        PENDING,
+        APPLIED,
+        REJECTED,
+        FAILED
+    }
+
+    public static AsyncTransferStatus pending(UUID transferId) {
+        return new AsyncTransferStatus(transferId, State.PENDING, null);
+    }
+}
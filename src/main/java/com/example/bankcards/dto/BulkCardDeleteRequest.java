@@ -0,0 +1,10 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Массовое удаление: карты задаются либо списком {@code cardIds}, либо {@code filter}.
+ */
+public record BulkCardDeleteRequest(List<UUID> cardIds, CardFilter filter) {
+}
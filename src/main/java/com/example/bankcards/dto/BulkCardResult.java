@@ -0,0 +1,7 @@
+package com.example.bankcards.dto;
+
+/**
+ * Итог массовой операции: {@code affected} — число изменённых строк.
+ */
+public record BulkCardResult(long affected) {
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Массовая смена статуса: карты задаются либо списком {@code cardIds}, либо {@code filter}.
+ */
+public record BulkCardStatusRequest(List<UUID> cardIds, CardFilter filter, Card.CardStatus status) {
+}
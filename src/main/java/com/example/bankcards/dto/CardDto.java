@@ -1,6 +1,17 @@
 package com.example.bankcards.dto;
 
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+
 import java.math.BigDecimal;
 
 public record CardDto(String cardMask, String owner, int expiryMonth, int expireYear, String status, BigDecimal balance) {
+
+    /**
+     * Конструктор для JPQL-проекций ({@code select new ...CardDto(...)}): маскирование то же, что в {@link CardMapper}.
+     */
+    public CardDto(String last4, String owner, int expiryMonth, int expiryYear, Card.CardStatus status,
+                   Money balance) {
+        this(CardMapper.maskCardNumber(last4), owner, expiryMonth, expiryYear, status.name(), balance.toBigDecimal());
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+
+import java.util.UUID;
+
+/**
+ * Фильтр карт для массовых операций: заданные поля объединяются через AND, пустой фильтр не допускается.
+ */
+public record CardFilter(UUID ownerId, String currency, Card.CardStatus status) {
+
+    public boolean isEmpty() {
+        return ownerId == null && (currency == null || currency.isBlank()) && status == null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+
+import java.util.UUID;
+
+/**
+ * Строка keyset-выборки: {@link CardDto} и id карты, по которому строится курсор следующей страницы.
+ */
+public record CardKeysetRow(UUID id, CardDto card) {
+
+    public CardKeysetRow(UUID id, String last4, String owner, int expiryMonth, int expiryYear,
+                         Card.CardStatus status, Money balance) {
+        this(id, new CardDto(last4, owner, expiryMonth, expiryYear, status, balance));
+    }
+}
@@ -22,7 +22,7 @@ public class CardMapper {
                 card.getExpiryMonth(),
                 card.getExpiryYear(),
                 card.getStatus().name(),
-                card.getBalance()
+                card.getEffectiveBalance().toBigDecimal()
         );
     }
 
@@ -34,7 +34,7 @@ public class CardMapper {
         return new PageImpl<>(content, cards.getPageable(), cards.getTotalElements());
     }
 
-    private static String maskCardNumber(String last4) {
+    public static String maskCardNumber(String last4) {
         if (last4 == null || last4.length() < 4) {
             throw new IllegalArgumentException("Invalid card number");
         }
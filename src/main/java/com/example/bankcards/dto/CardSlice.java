@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации без общего количества: {@code nextCursor} передаётся в следующий запрос.
+ */
+public record CardSlice(List<CardDto> content, String nextCursor, boolean hasNext) {
+}
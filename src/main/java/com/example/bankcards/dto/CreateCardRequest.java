@@ -36,5 +36,6 @@ public class CreateCardRequest {
     @NotBlank(message = "Currency cannot be blank")
     private String currency;
 
+    @DecimalMin(value = "0.00", message = "Initial balance cannot be negative")
     private BigDecimal initialBalance;
 }
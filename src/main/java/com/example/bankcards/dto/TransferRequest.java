@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.util.UUID;
+
+/**
+ * Один перевод в пакете: сумма передаётся строкой, как в {@code POST /api/cards/transfer}.
+ */
+public record TransferRequest(UUID fromCardId, UUID toCardId, String amount) {
+}
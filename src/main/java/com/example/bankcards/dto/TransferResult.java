@@ -0,0 +1,22 @@
+package com.example.bankcards.dto;
+
+import java.util.UUID;
+
+/**
+ * Итог одного перевода из пакета; {@code index} — позиция в запросе.
+ */
+public record TransferResult(int index, UUID fromCardId, UUID toCardId, Status status, String message) {
+
+    public enum Status {
+        APPLIED,
+        REJECTED
+    }
+
+    public static TransferResult applied(int index, TransferRequest request) {
+        return new TransferResult(index, request.fromCardId(), request.toCardId(), Status.APPLIED, null);
+    }
+
+    public static TransferResult rejected(int index, TransferRequest request, String message) {
+        return new TransferResult(index, request.fromCardId(), request.toCardId(), Status.REJECTED, message);
+    }
+}
@@ -4,7 +4,6 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.YearMonth;
 import java.util.UUID;
 
@@ -18,7 +17,7 @@ import java.util.UUID;
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -50,8 +49,13 @@ public class Card {
     private CardStatus status;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    @DecimalMin(value = "0.00")
-    private BigDecimal balance;
+    private Money balance; // снимок: проводки журнала до последней свёртки
+
+    // Сумма ещё не свёрнутых проводок card_ledger. Вместе с картой не читается: её заполняет
+    // CardLedgerService#refreshPendingDeltas там, где нужен фактический баланс
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private Money pendingLedgerDelta;
 
     @Column(nullable = false, length = 3)
     @Pattern(regexp = "^[A-Z]{3}$")
@@ -63,6 +67,22 @@ public class Card {
         EXPIRED
     }
 
+    /**
+     * Фактический баланс: снимок плюс не свёрнутые проводки журнала, если они были прочитаны.
+     */
+    public Money getEffectiveBalance() {
+        return pendingLedgerDelta != null ? balance.plus(pendingLedgerDelta) : balance;
+    }
+
+    /**
+     * Задаёт сумму, прочитанную отдельным запросом после блокировки строки. Под READ COMMITTED подзапрос
+     * в {@code SELECT ... FOR UPDATE} видит снимок на начало оператора, а строка карты после ожидания блокировки
+     * перечитывается: проводки, свёрнутые за это время, учлись бы в балансе дважды.
+     */
+    public void refreshPendingLedgerDelta(Money pendingLedgerDelta) {
+        this.pendingLedgerDelta = pendingLedgerDelta;
+    }
+
     public boolean isExpired() {
         YearMonth now = YearMonth.now();
         return YearMonth.of(expiryYear, expiryMonth).isBefore(now);
@@ -0,0 +1,39 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "card_ledger")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardLedgerEntry {
+
+    // Суррогатный ключ из общей последовательности. Блоки по 50 выделяются каждому узлу и сессии,
+    // поэтому порядок вставки он не отражает — ни в целом, ни по карте; для истории есть created_at
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_ledger_seq")
+    @SequenceGenerator(name = "card_ledger_seq", sequenceName = "card_ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "card_id", nullable = false)
+    private UUID cardId;
+
+    @Column(name = "transfer_id", nullable = false)
+    private UUID transferId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money amount; // списание отрицательное, зачисление положительное
+
+    @Column(nullable = false)
+    private boolean folded; // уже учтена в снимке card.balance
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,175 @@
+package com.example.bankcards.entity;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Денежная сумма в минимальных единицах (копейках, центах) со шкалой колонок {@code DECIMAL(19,2)}.
+ * <p>
+ * Разбор и арифметика работают с {@code long} без промежуточных объектов; переполнение не заворачивается,
+ * а приводит к {@link ArithmeticException}. {@link BigDecimal} нужен только на границе с БД и API.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    /** Число знаков после запятой в колонках баланса и сумм. */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100};
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * @throws ArithmeticException если у суммы больше {@value #SCALE} значащих знаков после запятой
+     *                             или она не помещается в {@code long}
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.movePointRight(SCALE).longValueExact());
+    }
+
+    public static Money parse(CharSequence amount) {
+        return ofMinor(parseMinorUnits(amount, SCALE));
+    }
+
+    /**
+     * Разбирает сумму с учётом числа знаков после запятой у валюты: для {@code JPY} дробная часть запрещена.
+     */
+    public static Money parse(CharSequence amount, String currency) {
+        return ofMinor(parseMinorUnits(amount, fractionDigits(currency)));
+    }
+
+    /**
+     * Число знаков после запятой у валюты ISO 4217, но не больше {@value #SCALE} — точности колонки.
+     */
+    public static int fractionDigits(String currency) {
+        if (currency == null) {
+            return SCALE;
+        }
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits < 0 ? SCALE : Math.min(digits, SCALE);
+        } catch (IllegalArgumentException e) {
+            return SCALE;
+        }
+    }
+
+    /**
+     * Разбор десятичной записи вида {@code [+-]123[.45]} в минимальные единицы без создания объектов.
+     * Лишние нули в дробной части допускаются, лишние значащие знаки — нет.
+     *
+     * @throws NumberFormatException если запись некорректна или сумма не помещается в {@code long}
+     */
+    public static long parseMinorUnits(CharSequence amount, int maxFractionDigits) {
+        if (amount == null) {
+            throw new NumberFormatException("Amount is required");
+        }
+        int digitsAllowed = Math.min(maxFractionDigits, SCALE);
+        int length = amount.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (amount.charAt(0) == '-' || amount.charAt(0) == '+')) {
+            negative = amount.charAt(0) == '-';
+            i++;
+        }
+
+        long value = 0;
+        int integerDigits = 0;
+        int fractionDigits = 0;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = amount.charAt(i);
+            if (c == '.' && !point) {
+                point = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw invalid(amount);
+            }
+            int digit = c - '0';
+            if (point) {
+                if (fractionDigits >= digitsAllowed) {
+                    if (digit != 0) {
+                        throw new NumberFormatException("Amount has more than " + digitsAllowed + " fraction digits: " + amount);
+                    }
+                    continue;
+                }
+                fractionDigits++;
+            } else {
+                integerDigits++;
+            }
+            // Накопление в отрицательном диапазоне позволяет представить Long.MIN_VALUE
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw new NumberFormatException("Amount is out of range: " + amount);
+            }
+            value = value * 10 - digit;
+        }
+        if (integerDigits == 0 && fractionDigits == 0) {
+            throw invalid(amount);
+        }
+
+        long scale = POWERS_OF_TEN[SCALE - fractionDigits];
+        if (value < Long.MIN_VALUE / scale) {
+            throw new NumberFormatException("Amount is out of range: " + amount);
+        }
+        value *= scale;
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw new NumberFormatException("Amount is out of range: " + amount);
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    /**
+     * Сумма выражается в минимальных единицах валюты: например, для {@code JPY} без дробной части.
+     */
+    public boolean fitsCurrency(String currency) {
+        return minorUnits % POWERS_OF_TEN[SCALE - fractionDigits(currency)] == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    private static NumberFormatException invalid(CharSequence amount) {
+        return new NumberFormatException("Invalid amount: " + amount);
+    }
+}
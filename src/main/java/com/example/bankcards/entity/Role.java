@@ -3,10 +3,18 @@ package com.example.bankcards.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
 import java.util.UUID;
 
 @Entity
 @Table(name = "roles")
+// Справочник ролей не меняется после вставки, а подгружается с каждым пользователем
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "roles")
+@EntityListeners(RoleCacheListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,30 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostRemove;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * При удалении роли БД каскадно удаляет строки {@code user_roles}, о которых Hibernate не знает.
+ * Закэшированные наборы ролей пользователей сбрасываются, иначе они ссылались бы на удалённую роль.
+ */
+public class RoleCacheListener {
+
+    private static final String USER_ROLES_COLLECTION = User.class.getName() + ".roles";
+
+    // Слушатель создаётся вместе с EntityManagerFactory, поэтому получаем её лениво
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public RoleCacheListener(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostRemove
+    public void evictUserRoles(Role role) {
+        entityManagerFactory.getObject()
+                .unwrap(SessionFactory.class)
+                .getCache()
+                .evictCollectionData(USER_ROLES_COLLECTION);
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.security.UserSecurityEpochListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
@@ -16,12 +23,16 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(UserSecurityEpochListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    @NaturalId
     @Column(nullable = false, unique = true, length = 50)
     @NotBlank
     @Size(min = 3, max = 50)
@@ -32,6 +43,7 @@ public class User {
     private String password;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users-roles")
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -43,6 +55,40 @@ public class User {
     @Column(nullable = false, length = 20)
     private UserStatus status;
 
+    // Эпоха безопасности: растёт только при смене пароля, ролей или статуса
+    // и тем самым делает выданные ранее JWT недействительными
+    @Column(name = "security_epoch", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private long securityEpoch;
+
+    public void setPassword(String password) {
+        if (!Objects.equals(this.password, password)) {
+            this.password = password;
+            securityEpoch++;
+        }
+    }
+
+    /**
+     * Роли меняются только целиком через {@link #setRoles}: иначе изменение прошло бы мимо эпохи безопасности.
+     */
+    public Set<Role> getRoles() {
+        return roles != null ? Collections.unmodifiableSet(roles) : null;
+    }
+
+    public void setRoles(Set<Role> roles) {
+        if (!Objects.equals(this.roles, roles)) {
+            this.roles = roles;
+            securityEpoch++;
+        }
+    }
+
+    public void setStatus(UserStatus status) {
+        if (this.status != status) {
+            this.status = status;
+            securityEpoch++;
+        }
+    }
+
     public enum UserStatus {
         ACTIVE,
         BLOCKED
@@ -1,11 +1,17 @@
 package com.example.bankcards.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.time.LocalDateTime;
@@ -15,13 +21,19 @@ import java.util.Map;
 @ControllerAdvice
 public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public ControllerExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler({ErrorMessage.class})
     public ResponseEntity<Object> globalExceptionHandler(final ErrorMessage ex) {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("message", ex.getMessage());
         body.put("status", ex.getHttpStatus().value());
-        return new ResponseEntity<>(body, ex.getHttpStatus());
+        return respond(ex, body, ex.getHttpStatus());
     }
 
     @ExceptionHandler({RuntimeException.class})
@@ -29,7 +41,7 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return respond(ex, body, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler({IllegalArgumentException.class})
@@ -37,21 +49,21 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return respond(ex, body, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler({BadCredentialsException.class})
-    public ResponseEntity<Object> handleBadCredentials() {
+    public ResponseEntity<Object> handleBadCredentials(final BadCredentialsException ex) {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
-        return new ResponseEntity<>(body, HttpStatus.UNAUTHORIZED);
+        return respond(ex, body, HttpStatus.UNAUTHORIZED);
     }
 
     @ExceptionHandler({AuthorizationDeniedException.class})
-    public ResponseEntity<Object> handleAuthorizationDenied() {
+    public ResponseEntity<Object> handleAuthorizationDenied(final AuthorizationDeniedException ex) {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
-        return new ResponseEntity<>(body, HttpStatus.FORBIDDEN);
+        return respond(ex, body, HttpStatus.FORBIDDEN);
     }
 
     @ExceptionHandler({UserNotFoundException.class})
@@ -60,7 +72,7 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        return respond(ex, body, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler({CardNotFoundException.class})
@@ -69,7 +81,7 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        return respond(ex, body, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler({CardNotActiveException.class})
@@ -78,6 +90,29 @@ public class ControllerExceptionHandler extends ResponseEntityExceptionHandler {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now().toString());
         body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return respond(ex, body, HttpStatus.BAD_REQUEST);
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(Exception ex, Object body, HttpHeaders headers,
+                                                             HttpStatusCode statusCode, WebRequest request) {
+        countError(ex, statusCode);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
+    private ResponseEntity<Object> respond(Exception ex, Map<String, Object> body, HttpStatusCode status) {
+        countError(ex, status);
+        // Потоковые эндпоинты заранее выставляют свой Content-Type, а ошибка всегда отдаётся в JSON
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Метки ограничены кодом ответа и классом исключения, сообщение в метрику не попадает
+    private void countError(Exception ex, HttpStatusCode status) {
+        Counter.builder("api.errors")
+                .description("Requests completed by the exception handler")
+                .tag("status", String.valueOf(status.value()))
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
     }
 }
@@ -0,0 +1,42 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardLedgerEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface CardLedgerRepository extends JpaRepository<CardLedgerEntry, Long> {
+
+    @Query("select distinct l.cardId from CardLedgerEntry l where l.folded = false")
+    List<UUID> findCardIdsWithUnfoldedEntries(Limit limit);
+
+    List<CardLedgerEntry> findByCardIdAndFoldedFalse(UUID cardId);
+
+    // Отдельными запросами после блокировки карт: новый оператор — новый снимок READ COMMITTED
+
+    @Query(value = "select coalesce(sum(amount), 0) from card_ledger where card_id = :cardId and folded = false",
+            nativeQuery = true)
+    BigDecimal sumUnfoldedAmount(@Param("cardId") UUID cardId);
+
+    @Query("select l.cardId as cardId, sum(l.amount) as amount from CardLedgerEntry l " +
+            "where l.cardId in :cardIds and l.folded = false group by l.cardId")
+    List<PendingDelta> sumUnfoldedAmounts(@Param("cardIds") Collection<UUID> cardIds);
+
+    interface PendingDelta {
+
+        UUID getCardId();
+
+        BigDecimal getAmount();
+    }
+
+    @Modifying
+    @Query("update CardLedgerEntry l set l.folded = true where l.id in :ids")
+    int markFolded(@Param("ids") Collection<Long> ids);
+}
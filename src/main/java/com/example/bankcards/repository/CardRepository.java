@@ -1,11 +1,22 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardKeysetRow;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,4 +25,72 @@ public interface CardRepository extends JpaRepository<Card, UUID> {
     Page<Card> findByOwner(User owner, Pageable pageable);
 
     Optional<Card> findByIdAndOwner(UUID id, User owner);
+
+    // Блокировка строк в порядке id: конкурентные переводы по одним и тем же картам не встают в deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids and c.owner = :owner order by c.id")
+    List<Card> findAllByIdInAndOwnerForUpdate(@Param("ids") Collection<UUID> ids, @Param("owner") User owner);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id = :id")
+    Optional<Card> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids order by c.id")
+    List<Card> findAllByIdInForUpdate(@Param("ids") Collection<UUID> ids);
+
+    // Атомарные списание и зачисление одним UPDATE: результат проверки — число изменённых строк.
+    // Условие читает только строку карты, поэтому после ожидания блокировки (например, за свёрткой журнала)
+    // оно перепроверяется по зафиксированному балансу
+
+    @Modifying
+    @Query(value = "update card set balance = balance - :amount " +
+            "where id = :id and owner_id = :ownerId and status = 'ACTIVE' and balance >= :amount",
+            nativeQuery = true)
+    int debitIfActive(@Param("id") UUID id, @Param("ownerId") UUID ownerId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "update card set balance = balance + :amount " +
+            "where id = :id and owner_id = :ownerId and status = 'ACTIVE'",
+            nativeQuery = true)
+    int creditIfActive(@Param("id") UUID id, @Param("ownerId") UUID ownerId, @Param("amount") BigDecimal amount);
+
+    // Удаление одним DELETE без предварительной загрузки сущности; каскад проводок выполняет БД
+    @Modifying
+    @Query("delete from Card c where c.id = :id")
+    int deleteCardById(@Param("id") UUID id);
+
+    @Query("select c.status from Card c where c.id = :id and c.owner.id = :ownerId")
+    Optional<Card.CardStatus> findStatusByIdAndOwnerId(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    // Проекции для списков только на чтение: один join с владельцем, без управляемых сущностей.
+    // Баланс — снимок на последнюю свёртку журнала; фактический отдаёт CardService#getBalance
+
+    @Query(value = "select new com.example.bankcards.dto.CardDto(c.last4, o.username, c.expiryMonth, c.expiryYear, c.status, c.balance) " +
+            "from Card c join c.owner o",
+            countQuery = "select count(c) from Card c")
+    Page<CardDto> findAllCardDtos(Pageable pageable);
+
+    @Query(value = "select new com.example.bankcards.dto.CardDto(c.last4, o.username, c.expiryMonth, c.expiryYear, c.status, c.balance) " +
+            "from Card c join c.owner o where c.owner = :owner",
+            countQuery = "select count(c) from Card c where c.owner = :owner")
+    Page<CardDto> findCardDtosByOwner(@Param("owner") User owner, Pageable pageable);
+
+    // Keyset-пагинация: поиск по индексированному id вместо OFFSET, без count-запроса
+
+    @Query("select new com.example.bankcards.dto.CardKeysetRow(c.id, c.last4, o.username, c.expiryMonth, c.expiryYear, c.status, c.balance) " +
+            "from Card c join c.owner o where c.id > :after order by c.id asc")
+    List<CardKeysetRow> findAllAfter(@Param("after") UUID after, Limit limit);
+
+    @Query("select new com.example.bankcards.dto.CardKeysetRow(c.id, c.last4, o.username, c.expiryMonth, c.expiryYear, c.status, c.balance) " +
+            "from Card c join c.owner o where c.id < :before order by c.id desc")
+    List<CardKeysetRow> findAllBefore(@Param("before") UUID before, Limit limit);
+
+    @Query("select new com.example.bankcards.dto.CardKeysetRow(c.id, c.last4, o.username, c.expiryMonth, c.expiryYear, c.status, c.balance) " +
+            "from Card c join c.owner o where c.owner = :owner and c.id > :after order by c.id asc")
+    List<CardKeysetRow> findByOwnerAfter(@Param("owner") User owner, @Param("after") UUID after, Limit limit);
+
+    @Query("select new com.example.bankcards.dto.CardKeysetRow(c.id, c.last4, o.username, c.expiryMonth, c.expiryYear, c.status, c.balance) " +
+            "from Card c join c.owner o where c.owner = :owner and c.id < :before order by c.id desc")
+    List<CardKeysetRow> findByOwnerBefore(@Param("owner") User owner, @Param("before") UUID before, Limit limit);
 }
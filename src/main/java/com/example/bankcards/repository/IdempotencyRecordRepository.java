@@ -0,0 +1,43 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    Optional<IdempotencyRecord> findByUserIdAndKey(UUID userId, String key);
+
+    // Перехват ключа, застрявшего в IN_PROGRESS: условие в UPDATE пропускает только один из конкурирующих запросов
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.createdAt = :now " +
+            "where r.id = :id and r.status = com.example.bankcards.entity.IdempotencyRecord.Status.IN_PROGRESS " +
+            "and r.createdAt < :staleBefore")
+    int reclaimStale(@Param("id") UUID id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    // Повторное использование истёкшего ключа, который ещё не удалён планировщиком: UPDATE займёт его только для одного запроса
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.operation = :operation, r.requestHash = :requestHash, " +
+            "r.status = com.example.bankcards.entity.IdempotencyRecord.Status.IN_PROGRESS, r.responseBody = null, " +
+            "r.createdAt = :now, r.expiresAt = :expiresAt " +
+            "where r.id = :id and r.expiresAt <= :now")
+    int reclaimExpired(@Param("id") UUID id, @Param("operation") String operation,
+                       @Param("requestHash") String requestHash, @Param("now") Instant now,
+                       @Param("expiresAt") Instant expiresAt);
+
+    // Удаление порциями: короткие транзакции не держат блокировки на большом числе строк
+    @Modifying
+    @Query(value = "delete from idempotency_key where id in " +
+            "(select id from idempotency_key where expires_at < :now limit :batchSize)",
+            nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
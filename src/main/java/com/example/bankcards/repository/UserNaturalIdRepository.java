@@ -0,0 +1,14 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Поиск пользователя по натуральному ключу {@code username} через кэш второго уровня:
+ * повторный поиск не обращается к БД, пока пользователь не изменён.
+ */
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByUsername(String username);
+}
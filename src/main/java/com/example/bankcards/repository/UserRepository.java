@@ -3,10 +3,10 @@ package com.example.bankcards.repository;
 import com.example.bankcards.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
+import java.util.List;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository {
 
-    Optional<User> findByUsername(String username);
+    List<User> findBySecurityEpochGreaterThan(long securityEpoch);
 }
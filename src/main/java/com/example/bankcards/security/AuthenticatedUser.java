@@ -0,0 +1,46 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Неизменяемое представление аутентифицированного пользователя, восстанавливаемое из claims JWT
+ * без обращения к базе данных.
+ */
+public record AuthenticatedUser(UUID id, String username, User.UserStatus status, Set<String> roles)
+        implements AuthenticatedPrincipal {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    public AuthenticatedUser {
+        roles = Set.copyOf(roles);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role) || roles.contains(ROLE_PREFIX + role);
+    }
+
+    public Collection<? extends GrantedAuthority> authorities() {
+        return roles.stream()
+                .map(AuthenticatedUser::toAuthority)
+                .toList();
+    }
+
+    /**
+     * Роли хранятся в БД как ROLE_ADMIN/ROLE_USER, префикс добавляется только если его нет.
+     */
+    public static SimpleGrantedAuthority toAuthority(String roleName) {
+        return new SimpleGrantedAuthority(roleName.startsWith(ROLE_PREFIX) ? roleName : ROLE_PREFIX + roleName);
+    }
+}
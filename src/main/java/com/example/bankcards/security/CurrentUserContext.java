@@ -0,0 +1,33 @@
+package com.example.bankcards.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Хранит {@link AuthenticatedUser} в атрибутах текущего HTTP-запроса.
+ * Фильтр безопасности заполняет его один раз, сервисы читают без запросов к БД.
+ * Вне HTTP-запроса (фоновые задачи, тесты сервисов) контекст всегда пуст.
+ */
+@Component
+public class CurrentUserContext {
+
+    private static final String ATTRIBUTE = CurrentUserContext.class.getName() + ".USER";
+
+    public Optional<AuthenticatedUser> get() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((AuthenticatedUser) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    public void set(AuthenticatedUser user) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link org.springframework.security.core.userdetails.User} с идентификатором и эпохой безопасности,
+ * чтобы при логине не перечитывать пользователя для формирования JWT.
+ */
+@Getter
+public class CustomUserDetails extends org.springframework.security.core.userdetails.User {
+
+    private final UUID id;
+    private final User.UserStatus status;
+    private final Set<String> roles;
+    private final long securityEpoch;
+
+    public CustomUserDetails(UUID id, String username, String password, User.UserStatus status,
+                             Set<String> roles, long securityEpoch) {
+        super(username, password, true, true, true, status != User.UserStatus.BLOCKED,
+                toAuthorities(roles));
+        this.id = id;
+        this.status = status;
+        this.roles = Set.copyOf(roles);
+        this.securityEpoch = securityEpoch;
+    }
+
+    public AuthenticatedUser toAuthenticatedUser() {
+        return new AuthenticatedUser(id, getUsername(), status, roles);
+    }
+
+    private static Collection<? extends GrantedAuthority> toAuthorities(Set<String> roles) {
+        return roles.stream()
+                .map(AuthenticatedUser::toAuthority)
+                .toList();
+    }
+}
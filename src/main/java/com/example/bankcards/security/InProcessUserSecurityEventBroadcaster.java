@@ -0,0 +1,28 @@
+package com.example.bankcards.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Рассылка в пределах одного процесса — для одного узла и для тестов.
+ */
+@Component
+@ConditionalOnProperty(name = "security.user-cache.broadcaster", havingValue = "in-process", matchIfMissing = true)
+public class InProcessUserSecurityEventBroadcaster implements UserSecurityEventBroadcaster {
+
+    private final List<Consumer<UserSecurityEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(UserSecurityEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<UserSecurityEvent> listener) {
+        listeners.add(listener);
+    }
+}
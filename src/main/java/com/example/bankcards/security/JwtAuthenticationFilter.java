@@ -1,10 +1,14 @@
 package com.example.bankcards.security;
 
 import com.example.bankcards.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,16 +19,32 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
-
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService) {
+    private final UserSecurityEpochRegistry epochRegistry;
+    private final CurrentUserContext currentUserContext;
+    private final Timer verifyTimer;
+    private final Timer claimsTimer;
+    private final Timer userLoadTimer;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                   CustomUserDetailsService userDetailsService,
+                                   UserSecurityEpochRegistry epochRegistry,
+                                   CurrentUserContext currentUserContext,
+                                   MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.epochRegistry = epochRegistry;
+        this.currentUserContext = currentUserContext;
+        this.verifyTimer = phaseTimer(meterRegistry, "verify");
+        this.claimsTimer = phaseTimer(meterRegistry, "claims");
+        this.userLoadTimer = phaseTimer(meterRegistry, "user_load");
     }
 
     @Override
@@ -42,25 +62,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 2. Извлекаем имя пользователя (subject) из токена
-        String username = jwtTokenProvider.extractSubject(token);
+        // 2. Проверяем подпись и срок действия токена (один раз) и извлекаем claims
+        Claims claims = verifyTimer.record(() -> jwtTokenProvider.extractVerifiedClaims(token));
+        String username = claims != null ? claims.getSubject() : null;
 
         // 3. Проверяем, что имя пользователя извлечено и для этого пользователя еще не установлена аутентификация
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // Загружаем детали пользователя из базы данных
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            // 4. Проверяем валидность токена (провайдер проверит срок действия и подпись)
-            if (jwtTokenProvider.isTokenValid(token)) {
-
-                // Создаем объект аутентификации
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null, // credentials - нам они не нужны, так как мы используем токен
-                        userDetails.getAuthorities()
-                );
+            // 4. Строим аутентификацию из claims токена, без обращения к базе данных
+            UsernamePasswordAuthenticationToken authToken = authenticate(claims);
 
+            if (authToken != null) {
                 // Дополняем объект деталями запроса (IP, сессия и т.д.)
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -71,6 +83,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims) {
+        long start = System.nanoTime();
+        AuthenticatedUser user = jwtTokenProvider.toAuthenticatedUser(claims);
+
+        if (user == null) {
+            // Токен старого формата (без id и ролей) — загружаем детали пользователя из базы данных
+            return userLoadTimer.record(() -> {
+                UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+                return new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null, // credentials - нам они не нужны, так как мы используем токен
+                        userDetails.getAuthorities()
+                );
+            });
+        }
+        try {
+            return fromClaims(claims, user);
+        } finally {
+            claimsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private UsernamePasswordAuthenticationToken fromClaims(Claims claims, AuthenticatedUser user) {
+        // Блокировка, смена пароля или ролей увеличивает эпоху пользователя — такие токены больше не принимаются
+        if (!epochRegistry.isCurrent(user.id(), jwtTokenProvider.extractSecurityEpoch(claims))) {
+            log.debug("JWT security epoch is outdated for user {}", user.username());
+            return null;
+        }
+        // Сервисы берут текущего пользователя из контекста запроса, а не из базы данных
+        currentUserContext.set(user);
+        return new UsernamePasswordAuthenticationToken(user, null, user.authorities());
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("auth.jwt.filter")
+                .description("JWT authentication filter: token verification and user resolution")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         final String bearerToken = request.getHeader("Authorization");
 
@@ -1,5 +1,9 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
@@ -9,22 +13,38 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_SECURITY_EPOCH = "epoch";
+
     private final SecretKey key;
     private final long expirationMinutes;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
 
     public JwtTokenProvider(
             @Value("${security.jwt.secret}") String secret,
-            @Value("${security.jwt.expiration-minutes}") long expirationMinutes
+            @Value("${security.jwt.expiration-minutes}") long expirationMinutes,
+            @Value("${security.jwt.verified-cache-size:10000}") long verifiedCacheSize
     ) {
         // 1. Проверка безопасности: Секретный ключ для HMAC-SHA должен быть достаточно длинным.
         // Для HS256 рекомендуется минимум 256 бит (32 байта).
@@ -33,6 +53,15 @@ public class JwtTokenProvider {
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMinutes = expirationMinutes;
+        // 2. JwtParser неизменяем и потокобезопасен, поэтому собираем его один раз.
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        // 3. Кэш проверенных токенов: ключ — SHA-256 от токена, запись живёт до истечения срока токена.
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     public String generateToken(String subject, Map<String, Object> extraClaims) {
@@ -52,22 +81,73 @@ public class JwtTokenProvider {
         return generateToken(subject, Collections.emptyMap());
     }
 
-    public String extractSubject(String token) {
+    /**
+     * Токен с id пользователя, ролями и эпохой безопасности — достаточно для авторизации без запроса к БД.
+     */
+    public String generateToken(AuthenticatedUser user, long securityEpoch) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.id().toString());
+        claims.put(CLAIM_ROLES, List.copyOf(user.roles()));
+        claims.put(CLAIM_SECURITY_EPOCH, securityEpoch);
+        return generateToken(user.username(), claims);
+    }
+
+    /**
+     * Восстанавливает пользователя из claims проверенного токена.
+     *
+     * @return пользователь или {@code null}, если токен выпущен без claims авторизации (старый формат)
+     */
+    public AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || roles == null || !claims.containsKey(CLAIM_SECURITY_EPOCH)) {
+            return null;
+        }
+        Set<String> roleNames = roles.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        // Заблокированный пользователь не может получить токен, а блокировка увеличивает эпоху
+        return new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), User.UserStatus.ACTIVE, roleNames);
+    }
+
+    public long extractSecurityEpoch(Claims claims) {
+        Number epoch = claims.get(CLAIM_SECURITY_EPOCH, Number.class);
+        return epoch != null ? epoch.longValue() : 0L;
+    }
+
+    /**
+     * Проверяет подпись и срок действия токена за один проход.
+     *
+     * @return claims проверенного токена или {@code null}, если токен невалиден
+     */
+    public Claims extractVerifiedClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
         Claims claims = extractAllClaims(token);
+        if (claims != null && claims.getExpiration() != null) {
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
+    }
+
+    public String extractSubject(String token) {
+        Claims claims = extractVerifiedClaims(token);
         return claims != null ? claims.getSubject() : null;
     }
 
     public boolean isTokenValid(String token) {
-        return extractAllClaims(token) != null;
+        return extractVerifiedClaims(token) != null;
     }
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException e) {
             log.warn("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
@@ -81,4 +161,32 @@ public class JwtTokenProvider {
         }
         return null;
     }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
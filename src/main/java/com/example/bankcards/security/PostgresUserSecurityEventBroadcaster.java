@@ -0,0 +1,124 @@
+package com.example.bankcards.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Рассылка через Postgres LISTEN/NOTIFY. Событие сначала применяется локально,
+ * затем уходит в канал; собственное уведомление узел получит повторно — обработчики идемпотентны.
+ * LISTEN держит собственное соединение вне пула: иначе оно навсегда занимало бы одно из соединений Hikari.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "security.user-cache.broadcaster", havingValue = "postgres")
+public class PostgresUserSecurityEventBroadcaster implements UserSecurityEventBroadcaster {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Consumer<UserSecurityEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+
+    public PostgresUserSecurityEventBroadcaster(DataSource dataSource,
+                                                DataSourceProperties dataSourceProperties,
+                                                @Value("${spring.application.name:card-service}") String applicationName,
+                                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        String threadName = applicationName + "-user-events-listener";
+        Thread.Builder threadBuilder = virtualThreads
+                ? Thread.ofVirtual().name(threadName)
+                : Thread.ofPlatform().daemon(true).name(threadName);
+        this.listenerThread = threadBuilder.unstarted(this::listen);
+    }
+
+    @PostConstruct
+    void start() {
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    @Override
+    public void publish(UserSecurityEvent event) {
+        dispatch(event);
+        jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, UserSecurityEvent.CHANNEL, event.encode());
+    }
+
+    @Override
+    public void subscribe(Consumer<UserSecurityEvent> listener) {
+        listeners.add(listener);
+    }
+
+    private void listen() {
+        while (running) {
+            // Соединение держим всё время прослушивания: LISTEN привязан к сессии
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + UserSecurityEvent.CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for user security events on channel {}", UserSecurityEvent.CHANNEL);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("User security event listener failed, reconnecting: {}", e.getMessage());
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            dispatch(UserSecurityEvent.decode(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed user security event: {}", payload);
+        }
+    }
+
+    private void dispatch(UserSecurityEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
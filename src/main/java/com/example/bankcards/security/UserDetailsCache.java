@@ -0,0 +1,43 @@
+package com.example.bankcards.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш {@link UserDetailsSnapshot} по имени пользователя.
+ * Записи сбрасываются по {@link UserSecurityEvent} со всех узлов кластера.
+ * Метрики попаданий, промахов и вытеснений публикуются как cache.* с тегом cache=userDetails.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetailsSnapshot> cache;
+
+    public UserDetailsCache(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-cache.ttl:5m}") Duration ttl,
+                            UserSecurityEventBroadcaster broadcaster,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+        broadcaster.subscribe(event -> invalidate(event.username()));
+    }
+
+    public UserDetailsSnapshot get(String username, Function<String, UserDetailsSnapshot> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Неизменяемый снимок пользователя для кэша. Каждый вызов {@link #toUserDetails()} возвращает новый объект:
+ * Spring Security стирает пароль у аутентифицированного principal, и кэш не должен это видеть.
+ */
+public record UserDetailsSnapshot(UUID id, String username, String password, User.UserStatus status,
+                                  Set<String> roles, long securityEpoch) {
+
+    public UserDetailsSnapshot {
+        roles = Set.copyOf(roles);
+    }
+
+    public CustomUserDetails toUserDetails() {
+        return new CustomUserDetails(id, username, password, status, roles, securityEpoch);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Сбрасывает пользователя в кэше второго уровня Hibernate по {@link UserSecurityEvent}.
+ * Свой узел Hibernate обновляет сам, а изменения с других узлов иначе были бы видны только по истечении срока записи.
+ */
+@Component
+public class UserEntityCacheEvictor {
+
+    private static final String ROLES_COLLECTION = User.class.getName() + ".roles";
+
+    private final Cache cache;
+
+    public UserEntityCacheEvictor(EntityManagerFactory entityManagerFactory, UserSecurityEventBroadcaster broadcaster) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        broadcaster.subscribe(this::evict);
+    }
+
+    void evict(UserSecurityEvent event) {
+        cache.evictEntityData(User.class, event.userId());
+        cache.evictCollectionData(ROLES_COLLECTION, event.userId());
+        if (event.securityEpoch() == UserSecurityEpochRegistry.REVOKED) {
+            // Удалённый пользователь: его имя может снова занять новый пользователь с другим id
+            cache.evictNaturalIdData(User.class);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA-слушатель {@link User}: после коммита изменение пользователя рассылается как {@link UserSecurityEvent}.
+ * Узлы сбрасывают {@link UserDetailsCache} и обновляют {@link UserSecurityEpochRegistry}; эпоха растёт
+ * только при смене пароля, ролей или статуса, поэтому остальные изменения токены не отзывают.
+ */
+public class UserSecurityEpochListener {
+
+    // Слушатель создаётся вместе с EntityManagerFactory, поэтому рассыльщик получаем лениво
+    private final ObjectProvider<UserSecurityEventBroadcaster> broadcaster;
+
+    public UserSecurityEpochListener(ObjectProvider<UserSecurityEventBroadcaster> broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @PostUpdate
+    public void publishEpoch(User user) {
+        publish(new UserSecurityEvent(user.getId(), user.getUsername(), user.getSecurityEpoch()));
+    }
+
+    @PostRemove
+    public void revoke(User user) {
+        publish(new UserSecurityEvent(user.getId(), user.getUsername(), UserSecurityEpochRegistry.REVOKED));
+    }
+
+    private void publish(UserSecurityEvent event) {
+        afterCommit(() -> broadcaster.getObject().publish(event));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
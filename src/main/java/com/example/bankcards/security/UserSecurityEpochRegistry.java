@@ -0,0 +1,48 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * In-memory таблица эпох безопасности пользователей.
+ * JWT считается действительным, только если эпоха в токене не меньше текущей эпохи пользователя.
+ * Хранятся только ненулевые эпохи, поэтому таблица мала: пользователей, которых блокировали
+ * или у которых меняли пароль или роли, немного. Изменения с других узлов приходят через {@link UserSecurityEventBroadcaster}.
+ */
+@Slf4j
+@Component
+public class UserSecurityEpochRegistry {
+
+    public static final long REVOKED = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final UserSecurityEpochTable epochs = new UserSecurityEpochTable();
+
+    public UserSecurityEpochRegistry(UserRepository userRepository, UserSecurityEventBroadcaster broadcaster) {
+        this.userRepository = userRepository;
+        broadcaster.subscribe(event -> advance(event.userId(), event.securityEpoch()));
+    }
+
+    @PostConstruct
+    void load() {
+        userRepository.findBySecurityEpochGreaterThan(0L)
+                .forEach(user -> epochs.advance(user.getId(), user.getSecurityEpoch()));
+        log.info("Loaded {} user security epochs", epochs.size());
+    }
+
+    public long currentEpoch(UUID userId) {
+        return epochs.currentEpoch(userId);
+    }
+
+    public boolean isCurrent(UUID userId, long tokenEpoch) {
+        return epochs.isCurrent(userId, tokenEpoch);
+    }
+
+    public void advance(UUID userId, long epoch) {
+        epochs.advance(userId, epoch);
+    }
+}
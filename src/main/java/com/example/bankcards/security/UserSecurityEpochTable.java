@@ -0,0 +1,34 @@
+package com.example.bankcards.security;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таблица эпох безопасности пользователей без зависимостей от Spring и JPA:
+ * её используют и {@link UserSecurityEpochRegistry}, и модуль card-read-api.
+ * Хранятся только ненулевые эпохи; у отсутствующего пользователя эпоха 0.
+ */
+public final class UserSecurityEpochTable {
+
+    private final Map<UUID, Long> epochs = new ConcurrentHashMap<>();
+
+    public long currentEpoch(UUID userId) {
+        return epochs.getOrDefault(userId, 0L);
+    }
+
+    public boolean isCurrent(UUID userId, long tokenEpoch) {
+        return tokenEpoch >= currentEpoch(userId);
+    }
+
+    /**
+     * Эпохи только растут: устаревшее или повторное уведомление не может «воскресить» отозванные токены.
+     */
+    public void advance(UUID userId, long epoch) {
+        epochs.merge(userId, epoch, Math::max);
+    }
+
+    public int size() {
+        return epochs.size();
+    }
+}
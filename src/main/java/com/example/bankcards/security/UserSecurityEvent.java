@@ -0,0 +1,26 @@
+package com.example.bankcards.security;
+
+import java.util.UUID;
+
+/**
+ * Изменение пользователя, влияющее на безопасность: новая эпоха для JWT и сброс кэша UserDetails.
+ */
+public record UserSecurityEvent(UUID userId, String username, long securityEpoch) {
+
+    /** Канал Postgres NOTIFY, общий для узлов основного приложения и card-read-api. */
+    public static final String CHANNEL = "user_security_events";
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        return userId + SEPARATOR + securityEpoch + SEPARATOR + username;
+    }
+
+    public static UserSecurityEvent decode(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid user security event: " + payload);
+        }
+        return new UserSecurityEvent(UUID.fromString(parts[0]), parts[2], Long.parseLong(parts[1]));
+    }
+}
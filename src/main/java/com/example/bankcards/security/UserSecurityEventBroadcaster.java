@@ -0,0 +1,13 @@
+package com.example.bankcards.security;
+
+import java.util.function.Consumer;
+
+/**
+ * Рассылает {@link UserSecurityEvent} всем узлам кластера, включая текущий.
+ */
+public interface UserSecurityEventBroadcaster {
+
+    void publish(UserSecurityEvent event);
+
+    void subscribe(Consumer<UserSecurityEvent> listener);
+}
@@ -1,6 +1,6 @@
 package com.example.bankcards.service;
 
-import com.example.bankcards.entity.User;
+import com.example.bankcards.security.AuthenticatedUser;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
@@ -15,10 +15,8 @@ public class AdminServiceImpl implements AdminService {
 
     @Override
     public void requireAdmin() {
-        User currentUser = userService.getCurrentUser();
-        boolean isAdmin = currentUser.getRoles().stream()
-                .anyMatch(role -> "ROLE_ADMIN".equals(role.getName()));
-        if (!isAdmin) {
+        AuthenticatedUser currentUser = userService.getCurrentIdentity();
+        if (!currentUser.hasRole("ADMIN")) {
             throw new AccessDeniedException("Admin rights required");
         }
     }
@@ -0,0 +1,16 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardDeleteRequest;
+import com.example.bankcards.dto.BulkCardResult;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+
+/**
+ * Массовые операции администратора над картами. Выполняются set-based UPDATE/DELETE порциями,
+ * каждая в своей транзакции, без загрузки сущностей; уже зафиксированные порции не откатываются.
+ */
+public interface CardBulkService {
+
+    BulkCardResult changeStatus(BulkCardStatusRequest request);
+
+    BulkCardResult delete(BulkCardDeleteRequest request);
+}
@@ -0,0 +1,144 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardDeleteRequest;
+import com.example.bankcards.dto.BulkCardResult;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.CardFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class CardBulkServiceImpl implements CardBulkService {
+
+    // Карты в целевом статусе не трогаем: счётчик отражает реальные изменения, а проход по фильтру сходится
+    private static final String UPDATE_STATUS_BY_IDS =
+            "update card set status = :targetStatus where status <> :targetStatus and id in (:ids)";
+    private static final String UPDATE_STATUS_BY_FILTER =
+            "update card set status = :targetStatus where id in " +
+                    "(select id from card where status <> :targetStatus and %s limit :limit)";
+    private static final String DELETE_BY_IDS = "delete from card where id in (:ids)";
+    private static final String DELETE_BY_FILTER = "delete from card where id in (select id from card where %s limit :limit)";
+
+    private final AdminService adminService;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CardBulkServiceImpl(AdminService adminService,
+                               NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${card.bulk.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("card.bulk.chunk-size must be positive");
+        }
+        this.adminService = adminService;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BulkCardResult changeStatus(BulkCardStatusRequest request) {
+        adminService.requireAdmin();
+        if (request == null || request.status() == null) {
+            throw new IllegalArgumentException("status is required");
+        }
+        List<UUID> ids = requireSelection(request.cardIds(), request.filter());
+
+        MapSqlParameterSource params = new MapSqlParameterSource("targetStatus", request.status().name());
+        long affected = ids != null
+                ? executeByIds(UPDATE_STATUS_BY_IDS, ids, params)
+                : executeByFilter(UPDATE_STATUS_BY_FILTER, request.filter(), params);
+        log.info("Bulk status change to {} affected {} cards", request.status(), affected);
+        return new BulkCardResult(affected);
+    }
+
+    @Override
+    public BulkCardResult delete(BulkCardDeleteRequest request) {
+        adminService.requireAdmin();
+        if (request == null) {
+            throw new IllegalArgumentException("Request body is required");
+        }
+        List<UUID> ids = requireSelection(request.cardIds(), request.filter());
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        long affected = ids != null
+                ? executeByIds(DELETE_BY_IDS, ids, params)
+                : executeByFilter(DELETE_BY_FILTER, request.filter(), params);
+        log.info("Bulk delete removed {} cards", affected);
+        return new BulkCardResult(affected);
+    }
+
+    /**
+     * @return список id без повторов или {@code null}, если карты выбираются фильтром
+     */
+    private static List<UUID> requireSelection(List<UUID> cardIds, CardFilter filter) {
+        boolean hasIds = cardIds != null && !cardIds.isEmpty();
+        boolean hasFilter = filter != null && !filter.isEmpty();
+        if (hasIds == hasFilter) {
+            throw new IllegalArgumentException("Specify either cardIds or a non-empty filter");
+        }
+        if (!hasIds) {
+            return null;
+        }
+        if (cardIds.contains(null)) {
+            throw new IllegalArgumentException("cardIds must not contain null");
+        }
+        return List.copyOf(new LinkedHashSet<>(cardIds));
+    }
+
+    private long executeByIds(String sql, List<UUID> ids, MapSqlParameterSource params) {
+        long total = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            params.addValue("ids", ids.subList(from, Math.min(from + chunkSize, ids.size())));
+            total += executeChunk(sql, params);
+        }
+        return total;
+    }
+
+    // Каждая порция выводит изменённые строки из-под фильтра, поэтому неполная порция означает конец
+    private long executeByFilter(String sqlTemplate, CardFilter filter, MapSqlParameterSource params) {
+        String sql = sqlTemplate.formatted(whereClause(filter, params));
+        params.addValue("limit", chunkSize);
+        long total = 0;
+        int updated;
+        do {
+            updated = executeChunk(sql, params);
+            total += updated;
+        } while (updated == chunkSize);
+        return total;
+    }
+
+    private int executeChunk(String sql, MapSqlParameterSource params) {
+        Integer updated = transactionTemplate.execute(tx -> namedParameterJdbcTemplate.update(sql, params));
+        return updated != null ? updated : 0;
+    }
+
+    private static String whereClause(CardFilter filter, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.ownerId() != null) {
+            conditions.add("owner_id = :ownerId");
+            params.addValue("ownerId", filter.ownerId());
+        }
+        if (filter.currency() != null && !filter.currency().isBlank()) {
+            conditions.add("currency = :currency");
+            params.addValue("currency", filter.currency());
+        }
+        if (filter.status() != null) {
+            conditions.add("status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        return String.join(" and ", conditions);
+    }
+}
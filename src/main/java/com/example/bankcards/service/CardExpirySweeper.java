@@ -0,0 +1,139 @@
+package com.example.bankcards.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переводит просроченные карты в {@code EXPIRED} порциями UPDATE по индексу {@code (status, expiry_year, expiry_month)},
+ * не загружая сущности. На PostgreSQL проход защищён advisory-блокировкой, поэтому в кластере его выполняет один узел.
+ */
+@Slf4j
+@Service
+public class CardExpirySweeper {
+
+    // Произвольный, но постоянный ключ pg_advisory_lock для этой задачи
+    static final long ADVISORY_LOCK_KEY = 0x63617264_65787079L;
+
+    private static final String EXPIRE_CHUNK_SQL = """
+            update card set status = 'EXPIRED'
+            where id in (select id from card
+                         where status = 'ACTIVE' and (expiry_year, expiry_month) < (?, ?)
+                         limit ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final DistributionSummary chunkRows;
+    private final Timer chunkTimer;
+
+    public CardExpirySweeper(JdbcTemplate jdbcTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${card.expiry.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("card.expiry.chunk-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.chunkRows = DistributionSummary.builder("card.expiry.sweep.rows")
+                .description("Cards moved to EXPIRED by one sweep chunk")
+                .baseUnit("cards")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("card.expiry.sweep.chunk")
+                .description("Latency of one expiry sweep chunk")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${card.expiry.sweep-cron:0 5 0 * * *}")
+    public void scheduledSweep() {
+        try {
+            int expired = sweep(YearMonth.now());
+            if (expired > 0) {
+                log.info("Expired {} cards", expired);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Card expiry sweep skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Переводит в {@code EXPIRED} активные карты со сроком действия раньше {@code currentMonth}.
+     * Каждая порция фиксируется отдельно, так что строки карт блокируются ненадолго.
+     *
+     * @return число просроченных карт или {@code 0}, если проход уже выполняет другой узел
+     */
+    public int sweep(YearMonth currentMonth) {
+        Integer expired = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            // Сессионная блокировка привязана к соединению, поэтому все порции идут через него же
+            boolean advisoryLock = isPostgres(connection);
+            if (advisoryLock && !tryAdvisoryLock(connection)) {
+                log.debug("Card expiry sweep is running on another node");
+                return 0;
+            }
+            try {
+                return expireInChunks(connection, currentMonth);
+            } finally {
+                if (advisoryLock) {
+                    advisoryUnlock(connection);
+                }
+            }
+        });
+        return expired != null ? expired : 0;
+    }
+
+    private int expireInChunks(Connection connection, YearMonth currentMonth) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try (PreparedStatement statement = connection.prepareStatement(EXPIRE_CHUNK_SQL)) {
+            statement.setInt(1, currentMonth.getYear());
+            statement.setInt(2, currentMonth.getMonthValue());
+            statement.setInt(3, chunkSize);
+            int total = 0;
+            int updated;
+            do {
+                long start = System.nanoTime();
+                updated = statement.executeUpdate();
+                chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                chunkRows.record(updated);
+                total += updated;
+            } while (updated == chunkSize);
+            return total;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static boolean tryAdvisoryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_try_advisory_lock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void advisoryUnlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_advisory_unlock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
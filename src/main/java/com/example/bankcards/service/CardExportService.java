@@ -0,0 +1,63 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+public interface CardExportService {
+
+    /**
+     * Потоково выгружает карты в {@code out}: строки читаются серверным курсором и пишутся сразу,
+     * без материализации сущностей.
+     *
+     * @param status   фильтр по статусу или {@code null}
+     * @param currency фильтр по валюте (ISO 4217) или {@code null}
+     */
+    void exportCards(Card.CardStatus status, String currency, Format format, OutputStream out) throws IOException;
+
+    enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format fromString(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+
+        /**
+         * Формат тела запроса по заголовку {@code Content-Type}; параметры вроде {@code charset} игнорируются.
+         */
+        public static Format fromContentType(String contentType) {
+            if (contentType != null) {
+                String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+                for (Format format : values()) {
+                    if (format.contentType.equals(mediaType)) {
+                        return format;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Unsupported content type: " + contentType);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CardMapper;
+import com.example.bankcards.entity.Card;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CardExportServiceImpl implements CardExportService {
+
+    private static final String SELECT_CARDS =
+            "select c.last4, u.username, c.expiry_month, c.expiry_year, c.status, " +
+                    "c.balance + (select coalesce(sum(l.amount), 0) from card_ledger l " +
+                    "where l.card_id = c.id and l.folded = false) as balance, c.currency " +
+                    "from card c join users u on u.id = c.owner_id";
+
+    private static final String CSV_HEADER = "cardMask,owner,expiryMonth,expireYear,status,balance,currency";
+
+    private final AdminService adminService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public CardExportServiceImpl(AdminService adminService,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${card.export.fetch-size:1000}") int fetchSize) {
+        this.adminService = adminService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void exportCards(Card.CardStatus status, String currency, Format format, OutputStream out) throws IOException {
+        adminService.requireAdmin();
+        if (currency != null && !currency.matches("^[A-Z]{3}$")) {
+            throw new IllegalArgumentException("Invalid currency: " + currency);
+        }
+
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        try (writer) {
+            writer.start();
+            // PostgreSQL отдаёт строки порциями по fetchSize только внутри транзакции (autocommit=false)
+            readOnlyTransaction.executeWithoutResult(tx -> streamRows(status, currency, writer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void streamRows(Card.CardStatus status, String currency, RowWriter writer) {
+        StringBuilder sql = new StringBuilder(SELECT_CARDS);
+        List<Object> args = new ArrayList<>(2);
+        if (status != null) {
+            sql.append(args.isEmpty() ? " where" : " and").append(" c.status = ?");
+            args.add(status.name());
+        }
+        if (currency != null) {
+            sql.append(args.isEmpty() ? " where" : " and").append(" c.currency = ?");
+            args.add(currency);
+        }
+
+        RowCallbackHandler handler = rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+
+    private interface RowWriter extends AutoCloseable {
+
+        void start() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("cardMask", CardMapper.maskCardNumber(rs.getString(1)));
+            generator.writeStringField("owner", rs.getString(2));
+            generator.writeNumberField("expiryMonth", rs.getInt(3));
+            generator.writeNumberField("expireYear", rs.getInt(4));
+            generator.writeStringField("status", rs.getString(5));
+            generator.writeNumberField("balance", rs.getBigDecimal(6));
+            generator.writeStringField("currency", rs.getString(7));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            BigDecimal balance = rs.getBigDecimal(6);
+            writer.write(CardMapper.maskCardNumber(rs.getString(1)));
+            writer.write(',');
+            writer.write(escape(rs.getString(2)));
+            writer.write(',');
+            writer.write(Integer.toString(rs.getInt(3)));
+            writer.write(',');
+            writer.write(Integer.toString(rs.getInt(4)));
+            writer.write(',');
+            writer.write(rs.getString(5));
+            writer.write(',');
+            writer.write(balance.toPlainString());
+            writer.write(',');
+            writer.write(rs.getString(7));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: кавычки только когда поле содержит разделитель, кавычку или перевод строки
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface CardImportService {
+
+    /**
+     * Выпускает карты из потока строк {@code CreateCardRequest} (NDJSON или CSV с заголовком).
+     * Строки проверяются по мере чтения, а вставляются порциями, каждая в своей транзакции.
+     * <p>
+     * В {@code report} пишется NDJSON: по строке {@code {"line":..,"error":..}} на каждую отклонённую строку
+     * и итоговая {@code {"total":..,"created":..,"rejected":..}}.
+     */
+    void importCards(CardExportService.Format format, InputStream in, OutputStream report) throws IOException;
+}
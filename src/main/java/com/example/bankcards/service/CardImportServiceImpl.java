@@ -0,0 +1,433 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.UuidV7Generator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CardImportServiceImpl implements CardImportService {
+
+    private static final String INSERT_CARD =
+            "insert into card (id, owner_id, card_number_enc, last4, holder_name, expiry_month, expiry_year, " +
+                    "status, balance, currency) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> CSV_COLUMNS = List.of(
+            "ownerUid", "encryptedNumber", "last4", "holderName", "expiryMonth", "expiryYear", "currency", "initialBalance");
+
+    // Длины колонок card: bean validation их не проверяет, а ошибка БД отклонила бы всю порцию
+    private static final int MAX_ENCRYPTED_NUMBER_LENGTH = 512;
+    private static final int MAX_HOLDER_NAME_LENGTH = 100;
+
+    private final AdminService adminService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public CardImportServiceImpl(AdminService adminService,
+                                 JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${card.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${card.import.max-line-length:4096}") int maxLineLength) {
+        this.adminService = adminService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(CreateCardRequest.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public void importCards(CardExportService.Format format, InputStream in, OutputStream report) throws IOException {
+        adminService.requireAdmin();
+
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(in, StandardCharsets.UTF_8), maxLineLength);
+        // Генератор закрывается только после успешного импорта: закрытие сбрасывает буфер в ответ,
+        // а пока ни одна порция не записана, ошибка ввода ещё может вернуть клиенту 400
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(report);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        Import state = new Import(generator);
+        RowParser parser = format == CardExportService.Format.CSV ? new CsvRowParser() : new NdjsonRowParser();
+
+        String line;
+        while ((line = reader.readLine(state.line + 1)) != null) {
+            state.line++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (parser.isHeader(state.line, line)) {
+                continue;
+            }
+            state.total++;
+            try {
+                PendingCard card = toPendingCard(state.line, parser.parse(line));
+                state.chunk.add(card);
+            } catch (InvalidRowException e) {
+                state.reject(state.line, e.getMessage());
+            }
+            if (state.chunk.size() >= chunkSize) {
+                flush(state);
+            }
+        }
+        flush(state);
+
+        generator.writeStartObject();
+        generator.writeNumberField("total", state.total);
+        generator.writeNumberField("created", state.created);
+        generator.writeNumberField("rejected", state.rejected);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.close();
+        log.info("Card import finished: total={}, created={}, rejected={}", state.total, state.created, state.rejected);
+    }
+
+    /**
+     * Вставляет накопленную порцию в одной транзакции: владельцы проверяются одним {@code IN}-запросом,
+     * карты вставляются JDBC-пакетом.
+     */
+    private void flush(Import state) throws IOException {
+        if (state.chunk.isEmpty()) {
+            return;
+        }
+        List<PendingCard> chunk = state.chunk;
+        state.chunk = new ArrayList<>(chunkSize);
+
+        List<PendingCard> accepted;
+        try {
+            accepted = transactionTemplate.execute(tx -> insertChunk(chunk));
+        } catch (DataAccessException e) {
+            log.warn("Card import chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+            for (PendingCard card : chunk) {
+                state.reject(card.line(), "Insert failed: " + e.getMostSpecificCause().getMessage());
+            }
+            state.generator.flush();
+            return;
+        }
+
+        Set<Long> acceptedLines = accepted.stream().map(PendingCard::line).collect(Collectors.toSet());
+        for (PendingCard card : chunk) {
+            if (!acceptedLines.contains(card.line())) {
+                state.reject(card.line(), "User with id " + card.ownerId() + " not found");
+            }
+        }
+        state.created += accepted.size();
+        state.generator.flush();
+    }
+
+    private List<PendingCard> insertChunk(List<PendingCard> chunk) {
+        Set<UUID> ownerIds = new HashSet<>();
+        for (PendingCard card : chunk) {
+            ownerIds.add(card.ownerId());
+        }
+        Set<UUID> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "select id from users where id in (:ids)", Map.of("ids", ownerIds), UUID.class));
+
+        List<PendingCard> accepted = chunk.stream()
+                .filter(card -> existing.contains(card.ownerId()))
+                .toList();
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CARD, accepted, accepted.size(), (ps, card) -> {
+            ps.setObject(1, UuidV7Generator.next());
+            ps.setObject(2, card.ownerId());
+            ps.setString(3, card.request().getEncryptedNumber());
+            ps.setString(4, card.request().getLast4());
+            ps.setString(5, card.request().getHolderName());
+            ps.setInt(6, card.request().getExpiryMonth());
+            ps.setInt(7, card.request().getExpiryYear());
+            ps.setString(8, Card.CardStatus.ACTIVE.name());
+            ps.setBigDecimal(9, card.balance().toBigDecimal());
+            ps.setString(10, card.request().getCurrency());
+        });
+        return accepted;
+    }
+
+    /**
+     * Те же проверки, что у одиночного создания карты: ограничения запроса и сущности {@link Card}.
+     */
+    private PendingCard toPendingCard(long line, CreateCardRequest request) {
+        Set<ConstraintViolation<CreateCardRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidRowException(describe(violations));
+        }
+        if (request.getEncryptedNumber().length() > MAX_ENCRYPTED_NUMBER_LENGTH) {
+            throw new InvalidRowException("Encrypted number is longer than " + MAX_ENCRYPTED_NUMBER_LENGTH + " characters");
+        }
+        if (request.getHolderName().length() > MAX_HOLDER_NAME_LENGTH) {
+            throw new InvalidRowException("Holder name is longer than " + MAX_HOLDER_NAME_LENGTH + " characters");
+        }
+
+        Money balance;
+        try {
+            balance = request.getInitialBalance() != null ? Money.of(request.getInitialBalance()) : Money.ZERO;
+        } catch (ArithmeticException e) {
+            throw new InvalidRowException("Invalid initial balance: " + request.getInitialBalance());
+        }
+        if (!balance.fitsCurrency(request.getCurrency())) {
+            throw new InvalidRowException("Initial balance " + balance + " is not valid for currency " + request.getCurrency());
+        }
+
+        Card card = Card.builder()
+                .cardNumberEnc(request.getEncryptedNumber())
+                .last4(request.getLast4())
+                .holderName(request.getHolderName())
+                .expiryMonth(request.getExpiryMonth())
+                .expiryYear(request.getExpiryYear())
+                .status(Card.CardStatus.ACTIVE)
+                .currency(request.getCurrency())
+                .balance(balance)
+                .build();
+        Set<ConstraintViolation<Card>> cardViolations = validator.validate(card);
+        if (!cardViolations.isEmpty()) {
+            throw new InvalidRowException(describe(cardViolations));
+        }
+        return new PendingCard(line, request.getOwnerUid(), request, balance);
+    }
+
+    private static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private interface RowParser {
+
+        boolean isHeader(long line, String text);
+
+        CreateCardRequest parse(String text);
+    }
+
+    private final class NdjsonRowParser implements RowParser {
+
+        @Override
+        public boolean isHeader(long line, String text) {
+            return false;
+        }
+
+        @Override
+        public CreateCardRequest parse(String text) {
+            try {
+                return requestReader.readValue(text);
+            } catch (JsonProcessingException e) {
+                throw new InvalidRowException("Malformed row: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class CsvRowParser implements RowParser {
+
+        // Номер поля в строке для каждой колонки CSV_COLUMNS; порядок колонок задаёт заголовок
+        private int[] positions;
+
+        @Override
+        public boolean isHeader(long line, String text) {
+            if (positions != null) {
+                return false;
+            }
+            List<String> header = splitLine(text);
+            Map<String, Integer> indexByName = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                indexByName.put(header.get(i).trim(), i);
+            }
+            positions = new int[CSV_COLUMNS.size()];
+            for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+                Integer position = indexByName.get(CSV_COLUMNS.get(i));
+                if (position == null && !"initialBalance".equals(CSV_COLUMNS.get(i))) {
+                    throw new IllegalArgumentException("CSV header must contain columns " + CSV_COLUMNS);
+                }
+                positions[i] = position != null ? position : -1;
+            }
+            return true;
+        }
+
+        @Override
+        public CreateCardRequest parse(String text) {
+            List<String> fields = splitLine(text);
+            try {
+                String balance = field(fields, 7);
+                return new CreateCardRequest(
+                        blankToNull(field(fields, 0)) != null ? UUID.fromString(field(fields, 0).trim()) : null,
+                        blankToNull(field(fields, 1)),
+                        blankToNull(field(fields, 2)),
+                        blankToNull(field(fields, 3)),
+                        Integer.parseInt(field(fields, 4).trim()),
+                        Integer.parseInt(field(fields, 5).trim()),
+                        blankToNull(field(fields, 6)),
+                        blankToNull(balance) != null ? new BigDecimal(balance.trim()) : null);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRowException("Malformed row: " + e.getMessage());
+            }
+        }
+
+        private String field(List<String> fields, int column) {
+            int position = positions[column];
+            return position >= 0 && position < fields.size() ? fields.get(position) : "";
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+
+        // RFC 4180 в пределах одной строки: поле в кавычках может содержать запятые и удвоенные кавычки
+        private static List<String> splitLine(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private final class Import {
+
+        private final JsonGenerator generator;
+        private List<PendingCard> chunk = new ArrayList<>(chunkSize);
+        private long line;
+        private long total;
+        private long created;
+        private long rejected;
+
+        Import(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        void reject(long line, String error) throws IOException {
+            rejected++;
+            generator.writeStartObject();
+            generator.writeNumberField("line", line);
+            generator.writeStringField("error", error);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    /**
+     * Построчное чтение с ограничением длины строки: в отличие от {@link java.io.BufferedReader#readLine()}
+     * строка без перевода строки не накапливается в памяти целиком, а прерывает импорт с ответом 400.
+     */
+    private static final class BoundedLineReader {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+
+        BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return строка без завершающих \n, \r или \r\n, либо {@code null} в конце потока
+         */
+        String readLine(long lineNumber) throws IOException {
+            line.setLength(0);
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return line.isEmpty() ? null : line.toString();
+                    }
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                    position++;
+                }
+                if (line.length() + position - start > maxLength) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is longer than " + maxLength + " characters");
+                }
+                line.append(buffer, start, position - start);
+                if (position < limit) {
+                    skipLineFeed = buffer[position++] == '\r';
+                    return line.toString();
+                }
+            }
+        }
+    }
+
+    private record PendingCard(long line, UUID ownerId, CreateCardRequest request, Money balance) {
+    }
+
+    private static final class InvalidRowException extends RuntimeException {
+
+        InvalidRowException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardLedgerEntry;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.repository.CardLedgerRepository;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Журнал проводок по картам: перевод пишет две строки в {@code card_ledger} вместо UPDATE карт,
+ * а фоновая свёртка переносит накопленные проводки в снимок {@code card.balance}.
+ */
+@Slf4j
+@Service
+public class CardLedgerService implements SmartInitializingSingleton {
+
+    private final CardLedgerRepository cardLedgerRepository;
+    private final CardRepository cardRepository;
+    private final TransactionOperations transactionOperations;
+    private final int compactionBatchSize;
+    private final Counter foldedEntries;
+
+    public CardLedgerService(CardLedgerRepository cardLedgerRepository,
+                             CardRepository cardRepository,
+                             TransactionOperations transactionOperations,
+                             MeterRegistry meterRegistry,
+                             @Value("${card.ledger.compaction-batch-size:500}") int compactionBatchSize) {
+        this.cardLedgerRepository = cardLedgerRepository;
+        this.cardRepository = cardRepository;
+        this.transactionOperations = transactionOperations;
+        this.compactionBatchSize = compactionBatchSize;
+        this.foldedEntries = Counter.builder("card.ledger.folded")
+                .description("Ledger entries folded into card balance snapshots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Записывает списание и зачисление одного перевода. Вызывается в транзакции перевода,
+     * карта списания к этому моменту должна быть заблокирована.
+     */
+    public void record(UUID transferId, UUID fromCardId, UUID toCardId, Money amount) {
+        Instant now = Instant.now();
+        cardLedgerRepository.saveAll(List.of(
+                entry(transferId, fromCardId, amount.negate(), now),
+                entry(transferId, toCardId, amount, now)));
+    }
+
+    /**
+     * Сумма не свёрнутых проводок карты. Вызывается после блокировки строки карты в той же транзакции.
+     */
+    public Money pendingDelta(UUID cardId) {
+        return Money.of(cardLedgerRepository.sumUnfoldedAmount(cardId));
+    }
+
+    /**
+     * Перечитывает не свёрнутые проводки заблокированных карт одним запросом, см. {@link Card#refreshPendingLedgerDelta}.
+     */
+    public void refreshPendingDeltas(Collection<Card> lockedCards) {
+        if (lockedCards.isEmpty()) {
+            return;
+        }
+        Map<UUID, Money> deltas = new HashMap<>();
+        for (CardLedgerRepository.PendingDelta delta : cardLedgerRepository.sumUnfoldedAmounts(
+                lockedCards.stream().map(Card::getId).toList())) {
+            deltas.put(delta.getCardId(), Money.of(delta.getAmount()));
+        }
+        lockedCards.forEach(card -> card.refreshPendingLedgerDelta(deltas.getOrDefault(card.getId(), Money.ZERO)));
+    }
+
+    // При старте сворачиваем всё, что осталось от режима ledger: остальные режимы работают со снимком.
+    // Вызывается после создания бинов, но до запуска веб-сервера, поэтому первый запрос уже видит свёрнутый баланс
+    @Override
+    public void afterSingletonsInstantiated() {
+        int folded;
+        do {
+            folded = compact();
+        } while (folded > 0);
+    }
+
+    @Scheduled(fixedDelayString = "${card.ledger.compaction-interval:30s}")
+    public void scheduledCompaction() {
+        try {
+            compact();
+        } catch (DataAccessException e) {
+            log.warn("Ledger compaction skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Сворачивает проводки не более чем {@code compaction-batch-size} карт, каждую в своей транзакции.
+     *
+     * @return число свёрнутых проводок
+     */
+    public int compact() {
+        int total = 0;
+        for (UUID cardId : cardLedgerRepository.findCardIdsWithUnfoldedEntries(Limit.of(compactionBatchSize))) {
+            try {
+                Integer folded = transactionOperations.execute(tx -> fold(cardId));
+                total += folded != null ? folded : 0;
+            } catch (RuntimeException e) {
+                log.warn("Failed to fold ledger entries of card {}: {}", cardId, e.getMessage());
+            }
+        }
+        foldedEntries.increment(total);
+        return total;
+    }
+
+    private int fold(UUID cardId) {
+        // Блокировка карты не пускает новые списания; зачисления могут появиться, поэтому
+        // помечаем свёрнутыми ровно те строки, которые сложили
+        Card card = cardRepository.findByIdForUpdate(cardId).orElse(null);
+        if (card == null) {
+            return 0;
+        }
+        List<CardLedgerEntry> entries = cardLedgerRepository.findByCardIdAndFoldedFalse(cardId);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Money delta = Money.ZERO;
+        for (CardLedgerEntry entry : entries) {
+            delta = delta.plus(entry.getAmount());
+        }
+        card.setBalance(card.getBalance().plus(delta));
+        cardLedgerRepository.markFolded(entries.stream().map(CardLedgerEntry::getId).toList());
+        return entries.size();
+    }
+
+    private static CardLedgerEntry entry(UUID transferId, UUID cardId, Money amount, Instant createdAt) {
+        return CardLedgerEntry.builder()
+                .transferId(transferId)
+                .cardId(cardId)
+                .amount(amount)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -1,13 +1,14 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardSlice;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 public interface CardService {
@@ -25,11 +26,15 @@ public interface CardService {
     CardDto requestBlockCard(UUID cardId);
 
     @Transactional(readOnly = true)
-    BigDecimal getBalance(UUID cardId);
+    Money getBalance(UUID cardId);
 
     void requireOwner(Card card, User user);
 
     Page<CardDto> getAllCards(int page, int size, String sort);
 
     Page<CardDto> getUserCards(int page, int size, String sort);
+
+    CardSlice scrollAllCards(String cursor, int size, String sort);
+
+    CardSlice scrollUserCards(String cursor, int size, String sort);
 }
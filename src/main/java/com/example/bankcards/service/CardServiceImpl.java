@@ -1,34 +1,49 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.config.ReplicaRead;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CardMapper;
+import com.example.bankcards.dto.CardKeysetRow;
+import com.example.bankcards.dto.CardSlice;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.util.CursorUtils;
 import com.example.bankcards.util.SortingUtils;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
+@Timed("card.service")
 @Service
 public class CardServiceImpl implements CardService {
+    // Верхняя граница страницы при прокрутке по курсору
+    static final int MAX_SCROLL_SIZE = 100;
+
     private final CardRepository cardRepository;
     private final AdminService adminService;
     private final UserService userService;
+    private final CardLedgerService cardLedgerService;
 
-    public CardServiceImpl(CardRepository cardRepository, AdminService adminService, UserService userService) {
+    public CardServiceImpl(CardRepository cardRepository, AdminService adminService, UserService userService,
+                           CardLedgerService cardLedgerService) {
         this.cardRepository = cardRepository;
         this.adminService = adminService;
         this.userService = userService;
+        this.cardLedgerService = cardLedgerService;
     }
 
     // ===== ADMIN =====
@@ -50,7 +65,7 @@ public class CardServiceImpl implements CardService {
                 .expiryYear(request.getExpiryYear())
                 .status(Card.CardStatus.ACTIVE)
                 .currency(request.getCurrency())
-                .balance(request.getInitialBalance() != null ? request.getInitialBalance() : BigDecimal.ZERO)
+                .balance(request.getInitialBalance() != null ? Money.of(request.getInitialBalance()) : Money.ZERO)
                 .build();
 
         card = cardRepository.save(card);
@@ -75,39 +90,60 @@ public class CardServiceImpl implements CardService {
     public void deleteCard(UUID cardId) {
         adminService.requireAdmin();
 
-        if (!cardRepository.existsById(cardId)) {
+        if (cardRepository.deleteCardById(cardId) == 0) {
             throw new CardNotFoundException("Card not found: " + cardId);
         }
-        cardRepository.deleteById(cardId);
     }
 
-    @Transactional(readOnly = true)
+    @ReplicaRead
     @Override
     public Page<CardDto> getAllCards(int page, int size, String sort) {
         adminService.requireAdmin();
         Pageable pageable = PageRequest.of(page, size, SortingUtils.getSort(sort));
-        Page<Card> cards = cardRepository.findAll(pageable);
+        return cardRepository.findAllCardDtos(pageable);
+    }
+
+    @ReplicaRead
+    @Override
+    public CardSlice scrollAllCards(String cursor, int size, String sort) {
+        adminService.requireAdmin();
+        CursorUtils.Cursor position = toCursor(cursor, sort);
+        Limit limit = Limit.of(toFetchSize(size));
+        List<CardKeysetRow> rows = position.direction().isAscending()
+                ? cardRepository.findAllAfter(position.lastId(), limit)
+                : cardRepository.findAllBefore(position.lastId(), limit);
 
-        return CardMapper.toCardDtoPage(cards);
+        return toSlice(rows, size, position.direction());
     }
 
     // ===== USER =====
 
-    @Transactional(readOnly = true)
+    @ReplicaRead
     @Override
     public Page<CardDto> getUserCards(int page, int size, String sort) {
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getCurrentUserReference();
         Pageable pageable = PageRequest.of(page, size, SortingUtils.getSort(sort));
-        Page<Card> cards = cardRepository.findByOwner(currentUser, pageable);
+        return cardRepository.findCardDtosByOwner(currentUser, pageable);
+    }
 
-        return CardMapper.toCardDtoPage(cards);
+    @ReplicaRead
+    @Override
+    public CardSlice scrollUserCards(String cursor, int size, String sort) {
+        User currentUser = userService.getCurrentUserReference();
+        CursorUtils.Cursor position = toCursor(cursor, sort);
+        Limit limit = Limit.of(toFetchSize(size));
+        List<CardKeysetRow> rows = position.direction().isAscending()
+                ? cardRepository.findByOwnerAfter(currentUser, position.lastId(), limit)
+                : cardRepository.findByOwnerBefore(currentUser, position.lastId(), limit);
+
+        return toSlice(rows, size, position.direction());
     }
 
     @Transactional
     @Override
     public CardDto requestBlockCard(UUID cardId) {
         Card card = getCardById(cardId);
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getCurrentUserReference();
         requireOwner(card, currentUser);
         card.setStatus(Card.CardStatus.BLOCKED);
 
@@ -118,11 +154,11 @@ public class CardServiceImpl implements CardService {
 
     @Transactional(readOnly = true)
     @Override
-    public BigDecimal getBalance(UUID cardId) {
+    public Money getBalance(UUID cardId) {
         Card card = getCardById(cardId);
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getCurrentUserReference();
         requireOwner(card, currentUser);
-        return card.getBalance();
+        return card.getBalance().plus(cardLedgerService.pendingDelta(cardId));
     }
 
     @Override
@@ -138,4 +174,30 @@ public class CardServiceImpl implements CardService {
         return cardRepository.findById(cardId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found: " + cardId));
     }
+
+    private CursorUtils.Cursor toCursor(String cursor, String sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return CursorUtils.start(SortingUtils.getDirection(sort));
+        }
+        return CursorUtils.decode(cursor);
+    }
+
+    // На одну строку больше размера страницы — чтобы узнать, есть ли следующая
+    private int toFetchSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        if (size > MAX_SCROLL_SIZE) {
+            throw new IllegalArgumentException("Page size must not exceed " + MAX_SCROLL_SIZE);
+        }
+        return size + 1;
+    }
+
+    private CardSlice toSlice(List<CardKeysetRow> rows, int size, Sort.Direction direction) {
+        boolean hasNext = rows.size() > size;
+        List<CardKeysetRow> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? CursorUtils.encode(page.get(page.size() - 1).id(), direction) : null;
+
+        return new CardSlice(page.stream().map(CardKeysetRow::card).toList(), nextCursor, hasNext);
+    }
 }
@@ -1,8 +1,30 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AsyncTransferStatus;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResult;
+
+import java.util.List;
 import java.util.UUID;
 
 public interface CardTransferService {
 
     void transferBetweenOwnCards(UUID fromCardId, UUID toCardId, String amount);
+
+    /**
+     * Применяет пакет переводов в одной транзакции. Невалидные переводы отклоняются по отдельности,
+     * остальные применяются в порядке следования.
+     *
+     * @return итог по каждому переводу в порядке запроса
+     */
+    List<TransferResult> transferBatch(List<TransferRequest> transfers);
+
+    /**
+     * Ставит перевод в очередь асинхронного движка ({@code card.transfer.async.enabled}).
+     *
+     * @return состояние {@code PENDING} с id перевода для опроса
+     */
+    AsyncTransferStatus submitTransfer(UUID fromCardId, UUID toCardId, String amount);
+
+    AsyncTransferStatus getTransferStatus(UUID transferId);
 }
@@ -1,55 +1,360 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AsyncTransferStatus;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResult;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.CardNotActiveException;
 import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.ErrorMessage;
 import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+@Slf4j
+@Timed("card.transfer.service")
 @Service
 public class CardTransferServiceImpl implements CardTransferService {
 
+    /**
+     * Упорядочивание id как в PostgreSQL (беззнаковое побайтовое сравнение): блокировки берутся в том же порядке,
+     * что и в {@code order by c.id}.
+     */
+    static final Comparator<UUID> LOCK_ORDER = Comparator
+            .<UUID>comparingLong(id -> id.getMostSignificantBits() ^ Long.MIN_VALUE)
+            .thenComparingLong(id -> id.getLeastSignificantBits() ^ Long.MIN_VALUE);
+
     private final CardRepository cardRepository;
+    private final CardLedgerService cardLedgerService;
     private final UserService userService;
+    private final TransactionOperations transactionOperations;
+    private final ObjectProvider<ShardedTransferExecutor> asyncExecutor;
+    private final TransferMode mode;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final int batchMaxSize;
+    private final Timer transferTimer;
+    private final Timer batchTimer;
+    private final Timer lockWaitTimer;
+    private final Counter retryCounter;
+    private final Counter retriesExhaustedCounter;
 
-    public CardTransferServiceImpl(CardRepository cardRepository, UserService userService) {
+    public CardTransferServiceImpl(CardRepository cardRepository,
+                                   CardLedgerService cardLedgerService,
+                                   UserService userService,
+                                   TransactionOperations transactionOperations,
+                                   ObjectProvider<ShardedTransferExecutor> asyncExecutor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${card.transfer.mode:entity}") TransferMode mode,
+                                   @Value("${card.transfer.max-attempts:3}") int maxAttempts,
+                                   @Value("${card.transfer.retry-backoff:20ms}") Duration retryBackoff,
+                                   @Value("${card.transfer.batch-max-size:500}") int batchMaxSize) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("card.transfer.max-attempts must be at least 1");
+        }
         this.cardRepository = cardRepository;
+        this.cardLedgerService = cardLedgerService;
         this.userService = userService;
+        this.transactionOperations = transactionOperations;
+        this.asyncExecutor = asyncExecutor;
+        this.mode = mode;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.batchMaxSize = batchMaxSize;
+        this.transferTimer = Timer.builder("card.transfer")
+                .description("Transfer transaction time including retries")
+                .tag("mode", mode.tag())
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("card.transfer.batch")
+                .description("Batch transfer transaction time including retries")
+                .register(meterRegistry);
+        this.lockWaitTimer = Timer.builder("card.transfer.lock.wait")
+                .description("Time spent acquiring row locks on transfer cards")
+                .tag("mode", mode.tag())
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("card.transfer.retries")
+                .description("Transfers retried after a lock or serialization failure")
+                .register(meterRegistry);
+        this.retriesExhaustedCounter = Counter.builder("card.transfer.retries.exhausted")
+                .description("Transfers that failed after all retry attempts")
+                .register(meterRegistry);
     }
 
     @Override
-    @Transactional
     public void transferBetweenOwnCards(UUID fromCardId, UUID toCardId, String transferAmount) {
-        BigDecimal amount = new BigDecimal(transferAmount);
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money amount = parseAmount(fromCardId, toCardId, transferAmount);
+        transferTimer.record(() -> transferWithRetry(fromCardId, toCardId, amount));
+    }
+
+    @Override
+    public AsyncTransferStatus submitTransfer(UUID fromCardId, UUID toCardId, String transferAmount) {
+        Money amount = parseAmount(fromCardId, toCardId, transferAmount);
+        return requireAsyncExecutor().submit(userService.getCurrentIdentity().id(), fromCardId, toCardId, amount);
+    }
+
+    @Override
+    public AsyncTransferStatus getTransferStatus(UUID transferId) {
+        AsyncTransferStatus status = requireAsyncExecutor().getStatus(userService.getCurrentIdentity().id(), transferId);
+        if (status == null) {
+            throw new ErrorMessage(HttpStatus.NOT_FOUND, "Transfer not found: " + transferId);
+        }
+        return status;
+    }
+
+    private ShardedTransferExecutor requireAsyncExecutor() {
+        ShardedTransferExecutor executor = asyncExecutor.getIfAvailable();
+        if (executor == null) {
+            throw new ErrorMessage(HttpStatus.SERVICE_UNAVAILABLE, "Asynchronous transfers are disabled");
+        }
+        return executor;
+    }
+
+    private static Money parseAmount(UUID fromCardId, UUID toCardId, String transferAmount) {
+        Money amount = Money.parse(transferAmount);
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Amount must be positive");
         }
+        if (fromCardId.equals(toCardId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same card");
+        }
+        return amount;
+    }
+
+    private void transferWithRetry(UUID fromCardId, UUID toCardId, Money amount) {
+        executeWithRetry("transfer " + fromCardId + " -> " + toCardId, () -> {
+            switch (mode) {
+                case ATOMIC -> atomicTransfer(fromCardId, toCardId, amount);
+                case LEDGER -> ledgerTransfer(fromCardId, toCardId, amount);
+                default -> transfer(fromCardId, toCardId, amount);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<TransferResult> transferBatch(List<TransferRequest> transfers) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transfer");
+        }
+        if (transfers.size() > batchMaxSize) {
+            throw new IllegalArgumentException("Batch must contain at most " + batchMaxSize + " transfers");
+        }
+
+        // Валидация до транзакции: в блокировку попадают только карты корректных переводов
+        TransferResult[] rejected = new TransferResult[transfers.size()];
+        Money[] amounts = new Money[transfers.size()];
+        Set<UUID> cardIds = new HashSet<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest request = transfers.get(i);
+            String error = validateRequest(request);
+            if (error == null) {
+                try {
+                    amounts[i] = Money.parse(request.amount());
+                    if (!amounts[i].isPositive()) {
+                        error = "Amount must be positive";
+                    }
+                } catch (NumberFormatException e) {
+                    error = "Invalid amount: " + request.amount();
+                }
+            }
+            if (error != null) {
+                rejected[i] = TransferResult.rejected(i, request, error);
+                continue;
+            }
+            cardIds.add(request.fromCardId());
+            cardIds.add(request.toCardId());
+        }
+        if (cardIds.isEmpty()) {
+            return List.of(rejected);
+        }
+
+        return batchTimer.record(() -> executeWithRetry("batch of " + transfers.size() + " transfers",
+                () -> applyBatch(transfers, amounts, rejected, cardIds)));
+    }
+
+    /**
+     * Применяет переводы к заблокированным картам в памяти: каждая карта получает итоговое (неттированное)
+     * изменение баланса и обновляется одним UPDATE, а UPDATE уходят в БД JDBC-пакетами.
+     */
+    private List<TransferResult> applyBatch(List<TransferRequest> transfers, Money[] amounts,
+                                            TransferResult[] rejected, Set<UUID> cardIds) {
+        User currentUser = userService.getCurrentUserReference();
+        Map<UUID, Card> locked = lockCards(cardIds, currentUser);
+
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest request = transfers.get(i);
+            if (rejected[i] != null) {
+                results.add(rejected[i]);
+                continue;
+            }
+            try {
+                Card from = getCardById(locked, request.fromCardId());
+                Card to = getCardById(locked, request.toCardId());
+                validateCards(from, to, amounts[i]);
+                from.setBalance(from.getBalance().minus(amounts[i]));
+                to.setBalance(to.getBalance().plus(amounts[i]));
+                results.add(TransferResult.applied(i, request));
+            } catch (CardNotFoundException | CardNotActiveException | IllegalStateException e) {
+                results.add(TransferResult.rejected(i, request, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static String validateRequest(TransferRequest request) {
+        if (request == null || request.fromCardId() == null || request.toCardId() == null || request.amount() == null) {
+            return "fromCardId, toCardId and amount are required";
+        }
+        if (request.fromCardId().equals(request.toCardId())) {
+            return "Cannot transfer to the same card";
+        }
+        return null;
+    }
+
+    private <T> T executeWithRetry(String description, Supplier<T> work) {
+        // Во внешней транзакции (например, идемпотентного запроса) повтор невозможен: после ошибки блокировки
+        // она откатывается целиком, поэтому повторяет её владелец
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(tx -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    retriesExhaustedCounter.increment();
+                    log.warn("{} failed after {} attempts: {}", description, attempt, e.getMessage());
+                    throw e;
+                }
+                retryCounter.increment();
+                log.info("Retrying {} after attempt {}: {}", description, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
 
-        User currentUser = userService.getCurrentUser();
+    private void transfer(UUID fromCardId, UUID toCardId, Money amount) {
+        User currentUser = userService.getCurrentUserReference();
 
-        Card from = getCardById(fromCardId, currentUser);
-        Card to = getCardById(toCardId, currentUser);
+        Map<UUID, Card> locked = lockCards(Set.of(fromCardId, toCardId), currentUser);
+        Card from = getCardById(locked, fromCardId);
+        Card to = getCardById(locked, toCardId);
 
         validateCards(from, to, amount);
 
-        from.setBalance(from.getBalance().subtract(amount));
-        to.setBalance(to.getBalance().add(amount));
+        from.setBalance(from.getBalance().minus(amount));
+        to.setBalance(to.getBalance().plus(amount));
 
         cardRepository.saveAll(List.of(from, to));
     }
 
-    private Card getCardById(UUID cardId, User user) {
-        return cardRepository.findByIdAndOwner(cardId, user)
+    /**
+     * Перевод записью в журнал: блокируется только карта списания (для проверки остатка),
+     * карта зачисления не блокируется и не обновляется.
+     */
+    private void ledgerTransfer(UUID fromCardId, UUID toCardId, Money amount) {
+        User currentUser = userService.getCurrentUserReference();
+
+        Card from = getCardById(lockCards(Set.of(fromCardId), currentUser), fromCardId);
+        Card.CardStatus toStatus = cardRepository.findStatusByIdAndOwnerId(toCardId, currentUser.getId())
+                .orElseThrow(() -> new CardNotFoundException("Card not found: " + toCardId));
+
+        if (from.getStatus() != Card.CardStatus.ACTIVE) {
+            throw new CardNotActiveException("Card is not active: " + fromCardId);
+        }
+        if (toStatus != Card.CardStatus.ACTIVE) {
+            throw new CardNotActiveException("Card is not active: " + toCardId);
+        }
+        requireFitsCurrency(from, amount);
+        if (from.getEffectiveBalance().isLessThan(amount)) {
+            throw new IllegalStateException("Insufficient funds");
+        }
+
+        cardLedgerService.record(UUID.randomUUID(), fromCardId, toCardId, amount);
+    }
+
+    /**
+     * Перевод двумя условными UPDATE без чтения сущностей. Строки обновляются в порядке {@link #LOCK_ORDER},
+     * а причина отказа определяется только при нулевом числе изменённых строк.
+     */
+    private void atomicTransfer(UUID fromCardId, UUID toCardId, Money amount) {
+        UUID ownerId = userService.getCurrentIdentity().id();
+
+        lockWaitTimer.record(() -> {
+            if (LOCK_ORDER.compare(fromCardId, toCardId) < 0) {
+                debit(fromCardId, ownerId, amount);
+                credit(toCardId, ownerId, amount);
+            } else {
+                credit(toCardId, ownerId, amount);
+                debit(fromCardId, ownerId, amount);
+            }
+        });
+    }
+
+    private void debit(UUID cardId, UUID ownerId, Money amount) {
+        if (cardRepository.debitIfActive(cardId, ownerId, amount.toBigDecimal()) == 0) {
+            requireActive(cardId, ownerId);
+            throw new IllegalStateException("Insufficient funds");
+        }
+    }
+
+    private void credit(UUID cardId, UUID ownerId, Money amount) {
+        if (cardRepository.creditIfActive(cardId, ownerId, amount.toBigDecimal()) == 0) {
+            requireActive(cardId, ownerId);
+            throw new IllegalStateException("Card was not credited: " + cardId);
+        }
+    }
+
+    private void requireActive(UUID cardId, UUID ownerId) {
+        Card.CardStatus status = cardRepository.findStatusByIdAndOwnerId(cardId, ownerId)
                 .orElseThrow(() -> new CardNotFoundException("Card not found: " + cardId));
+        if (status != Card.CardStatus.ACTIVE) {
+            throw new CardNotActiveException("Card is not active: " + cardId);
+        }
+    }
+
+    private Map<UUID, Card> lockCards(Set<UUID> cardIds, User owner) {
+        List<Card> cards = lockWaitTimer.record(() -> cardRepository.findAllByIdInAndOwnerForUpdate(cardIds, owner));
+        cardLedgerService.refreshPendingDeltas(cards);
+        return cards.stream().collect(Collectors.toMap(Card::getId, Function.identity()));
     }
 
-    private void validateCards(Card from, Card to,  BigDecimal amount) {
+    private Card getCardById(Map<UUID, Card> cards, UUID cardId) {
+        Card card = cards.get(cardId);
+        if (card == null) {
+            throw new CardNotFoundException("Card not found: " + cardId);
+        }
+        return card;
+    }
+
+    static void validateCards(Card from, Card to, Money amount) {
         if (!from.getStatus().equals(Card.CardStatus.ACTIVE)) {
             throw new CardNotActiveException("Card is not active: " + from.getId());
         }
@@ -58,8 +363,42 @@ public class CardTransferServiceImpl implements CardTransferService {
             throw new CardNotActiveException("Card is not active: " + to.getId());
         }
 
-        if (from.getBalance().compareTo(amount) < 0) {
+        requireFitsCurrency(from, amount);
+        if (from.getEffectiveBalance().isLessThan(amount)) {
             throw new IllegalStateException("Insufficient funds");
         }
     }
+
+    private static void requireFitsCurrency(Card card, Money amount) {
+        if (!amount.fitsCurrency(card.getCurrency())) {
+            throw new IllegalStateException("Amount " + amount + " is not valid for currency " + card.getCurrency());
+        }
+    }
+
+    // Случайная пауза, растущая с номером попытки, разводит столкнувшиеся транзакции
+    private void backoff(int attempt) {
+        long maxMillis = Math.max(1, retryBackoff.toMillis() * attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis) + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transfer retry interrupted", e);
+        }
+    }
+
+    public enum TransferMode {
+        /** Блокировка сущностей {@code FOR UPDATE} и изменение баланса в памяти. */
+        ENTITY,
+        /**
+         * Условные UPDATE без загрузки сущностей. Остаток проверяется по снимку {@code card.balance}: журнал
+         * заполняется только в режиме ledger и сворачивается при старте, до приёма запросов.
+         */
+        ATOMIC,
+        /** Вставка проводок в журнал card_ledger, блокируется только карта списания. */
+        LEDGER;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
 }
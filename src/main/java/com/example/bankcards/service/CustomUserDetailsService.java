@@ -1,8 +1,10 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.example.bankcards.security.UserDetailsCache;
+import com.example.bankcards.security.UserDetailsSnapshot;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,24 +16,31 @@ import java.util.stream.Collectors;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadSnapshot).toUserDetails();
+    }
+
+    private UserDetailsSnapshot loadSnapshot(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(role -> "ROLE_" + role.getName())
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toSet()))
-                .accountLocked(user.getStatus() == User.UserStatus.BLOCKED)
-                .build();
+        return new UserDetailsSnapshot(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getStatus(),
+                user.getRoles().stream()
+                        .map(Role::getName)
+                        .collect(Collectors.toSet()),
+                user.getSecurityEpoch()
+        );
     }
 }
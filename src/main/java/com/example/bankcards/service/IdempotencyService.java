@@ -0,0 +1,18 @@
+package com.example.bankcards.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Выполняет операцию не более одного раза для пары (текущий пользователь, ключ). Повтор с тем же ключом
+     * получает сохранённый результат без повторного выполнения.
+     *
+     * @param key       значение заголовка {@value #HEADER}; без ключа операция выполняется как обычно
+     * @param operation имя операции, входит в отпечаток запроса
+     * @param request   параметры запроса: повтор ключа с другими параметрами отклоняется
+     */
+    <T> T execute(String key, String operation, Object request, Class<T> resultType, Supplier<T> action);
+}
@@ -0,0 +1,254 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.exception.ErrorMessage;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final UserService userService;
+    private final TransactionOperations transactionOperations;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    private final Duration inProgressTimeout;
+    private final int maxAttempts;
+    // Завершённые результаты: повтор ключа обслуживается из памяти без обращения к БД, но не дольше expires_at записи
+    private final Cache<String, StoredResult> completed;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  UserService userService,
+                                  TransactionOperations transactionOperations,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${idempotency.cache-size:10000}") long cacheSize,
+                                  @Value("${idempotency.purge-batch-size:1000}") int purgeBatchSize,
+                                  @Value("${idempotency.in-progress-timeout:5m}") Duration inProgressTimeout,
+                                  @Value("${card.transfer.max-attempts:3}") int maxAttempts) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.userService = userService;
+        this.transactionOperations = transactionOperations;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.purgeBatchSize = purgeBatchSize;
+        this.inProgressTimeout = inProgressTimeout;
+        this.maxAttempts = maxAttempts;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.<String, StoredResult>writing(
+                        (cacheKey, stored) -> Duration.between(Instant.now(), stored.expiresAt())))
+                .build();
+    }
+
+    @Override
+    public <T> T execute(String key, String operation, Object request, Class<T> resultType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        UUID userId = userService.getCurrentIdentity().id();
+        String requestHash = fingerprint(operation, request);
+        String cacheKey = userId + ":" + key;
+
+        StoredResult cached = completed.getIfPresent(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, resultType, "cache");
+        }
+
+        Claim attempt = claim(userId, key, operation, requestHash);
+        if (attempt.stored() != null) {
+            // Ключ уже выполнен другим запросом
+            completed.put(cacheKey, attempt.stored());
+            return replay(attempt.stored(), requestHash, resultType, "db");
+        }
+        IdempotencyRecord claim = attempt.record();
+
+        T result;
+        try {
+            result = executeAndComplete(claim, action);
+        } catch (RuntimeException e) {
+            // Неуспешная операция не занимает ключ: клиент может повторить запрос
+            transactionOperations.executeWithoutResult(tx -> idempotencyRecordRepository.deleteById(claim.getId()));
+            throw e;
+        }
+        completed.put(cacheKey, StoredResult.of(claim));
+        return result;
+    }
+
+    /**
+     * Выполняет операцию и записывает COMPLETED в одной транзакции: результат фиксируется вместе с операцией
+     * или не фиксируется вовсе. Транзакция, откатившаяся из-за блокировки, повторяется целиком.
+     */
+    private <T> T executeAndComplete(IdempotencyRecord claim, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(tx -> {
+                    T result = action.get();
+                    claim.setStatus(IdempotencyRecord.Status.COMPLETED);
+                    claim.setResponseBody(serialize(result));
+                    idempotencyRecordRepository.save(claim);
+                    return result;
+                });
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.info("Retrying idempotent operation after attempt {}: {}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Занимает ключ вставкой строки IN_PROGRESS; уникальный индекс (user_id, idem_key) пропускает только один запрос.
+     * Ключ с истёкшим expires_at считается свободным, даже если планировщик ещё не удалил его строку.
+     *
+     * @return занятая запись или сохранённый результат, если ключ уже выполнен
+     */
+    private Claim claim(UUID userId, String key, String operation, String requestHash) {
+        Instant now = Instant.now();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .userId(userId)
+                .key(key)
+                .operation(operation)
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+        try {
+            return new Claim(transactionOperations.execute(tx -> idempotencyRecordRepository.saveAndFlush(record)), null);
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = idempotencyRecordRepository.findByUserIdAndKey(userId, key)
+                    .orElseThrow(() -> new ErrorMessage(HttpStatus.CONFLICT, "Request with this " + HEADER + " is in progress"));
+            if (!existing.getExpiresAt().isAfter(now)) {
+                if (idempotencyRecordRepository.reclaimExpired(existing.getId(), operation, requestHash, now, record.getExpiresAt()) == 1) {
+                    existing.setOperation(operation);
+                    existing.setRequestHash(requestHash);
+                    existing.setStatus(IdempotencyRecord.Status.IN_PROGRESS);
+                    existing.setResponseBody(null);
+                    existing.setCreatedAt(now);
+                    existing.setExpiresAt(record.getExpiresAt());
+                    return new Claim(existing, null);
+                }
+                // Истёкший ключ только что занял конкурирующий запрос
+                throw new ErrorMessage(HttpStatus.CONFLICT, "Request with this " + HEADER + " is in progress");
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw new ErrorMessage(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used with a different request");
+            }
+            if (existing.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+                // Операция фиксируется вместе с COMPLETED, поэтому давний IN_PROGRESS — след упавшего узла, а не выполненная операция
+                if (idempotencyRecordRepository.reclaimStale(existing.getId(), now, now.minus(inProgressTimeout)) == 1) {
+                    log.warn("Reclaimed stale {} {} of user {}", HEADER, key, userId);
+                    existing.setCreatedAt(now);
+                    return new Claim(existing, null);
+                }
+                throw new ErrorMessage(HttpStatus.CONFLICT, "Request with this " + HEADER + " is in progress");
+            }
+            return new Claim(null, StoredResult.of(existing));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:10m}")
+    public void purgeExpired() {
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                Instant now = Instant.now();
+                Integer batch = transactionOperations.execute(tx ->
+                        idempotencyRecordRepository.deleteExpiredBatch(now, purgeBatchSize));
+                deleted = batch != null ? batch : 0;
+                total += deleted;
+            } while (deleted >= purgeBatchSize);
+            if (total > 0) {
+                log.info("Purged {} expired idempotency keys", total);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Idempotency key purge skipped: {}", e.getMessage());
+        }
+    }
+
+    private <T> T replay(StoredResult stored, String requestHash, Class<T> resultType, String source) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ErrorMessage(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used with a different request");
+        }
+        meterRegistry.counter("idempotency.replays", "source", source).increment();
+        if (stored.responseBody() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(stored.responseBody(), resultType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private String serialize(Object result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Idempotent response cannot be stored", e);
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private record Claim(IdempotencyRecord record, StoredResult stored) {
+    }
+
+    private record StoredResult(String requestHash, String responseBody, Instant expiresAt) {
+
+        static StoredResult of(IdempotencyRecord record) {
+            return new StoredResult(record.getRequestHash(), record.getResponseBody(), record.getExpiresAt());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.AsyncTransferStatus;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.exception.CardNotActiveException;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.ErrorMessage;
+import com.example.bankcards.repository.CardRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Асинхронный движок переводов: перевод направляется в шард по id карты списания, у каждого шарда один
+ * поток-писатель, который применяет переводы по порядку и фиксирует их микропакетами — одна блокировка строк
+ * и один коммит на пакет вместо очереди блокировок на каждый перевод.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "card.transfer.async.enabled", havingValue = "true")
+public class ShardedTransferExecutor {
+
+    private final CardRepository cardRepository;
+    private final CardLedgerService cardLedgerService;
+    private final TransactionOperations transactionOperations;
+    private final int maxBatchSize;
+    private final int queueCapacity;
+    private final Shard[] shards;
+    private final Cache<UUID, TrackedStatus> statuses;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizeSummary;
+    private volatile boolean running;
+
+    public ShardedTransferExecutor(CardRepository cardRepository,
+                                   CardLedgerService cardLedgerService,
+                                   TransactionOperations transactionOperations,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${card.transfer.async.shards:8}") int shardCount,
+                                   @Value("${card.transfer.async.max-batch-size:100}") int maxBatchSize,
+                                   @Value("${card.transfer.async.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${card.transfer.async.result-ttl:10m}") Duration resultTtl,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (shardCount < 1 || maxBatchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("card.transfer.async shards, max-batch-size and queue-capacity must be positive");
+        }
+        this.cardRepository = cardRepository;
+        this.cardLedgerService = cardLedgerService;
+        this.transactionOperations = transactionOperations;
+        this.maxBatchSize = maxBatchSize;
+        this.queueCapacity = queueCapacity;
+        this.shards = new Shard[shardCount];
+        // Поток шарда большую часть времени ждёт очередь или JDBC, поэтому в режиме виртуальных потоков он тоже виртуальный
+        Thread.Builder threadBuilder = virtualThreads
+                ? Thread.ofVirtual().name("transfer-shard-", 0)
+                : Thread.ofPlatform().daemon(true).name("transfer-shard-", 0);
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, threadBuilder);
+        }
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(resultTtl)
+                .build();
+        this.batchTimer = Timer.builder("card.transfer.async.batch")
+                .description("Time to apply and commit one micro-batch")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("card.transfer.async.batch.size")
+                .description("Transfers per committed micro-batch")
+                .register(meterRegistry);
+        Gauge.builder("card.transfer.async.queued", this, ShardedTransferExecutor::queued)
+                .description("Transfers waiting in shard queues")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    // Остановка: новые переводы не принимаются, уже поставленные в очередь дорабатываются
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public AsyncTransferStatus submit(UUID ownerId, UUID fromCardId, UUID toCardId, Money amount) {
+        if (!running) {
+            throw new ErrorMessage(HttpStatus.SERVICE_UNAVAILABLE, "Transfer executor is stopped");
+        }
+        Shard shard = shards[Math.floorMod(fromCardId.hashCode(), shards.length)];
+        if (shard.size.incrementAndGet() > queueCapacity) {
+            shard.size.decrementAndGet();
+            throw new ErrorMessage(HttpStatus.SERVICE_UNAVAILABLE, "Transfer queue is full");
+        }
+
+        PendingTransfer transfer = new PendingTransfer(UUID.randomUUID(), ownerId, fromCardId, toCardId, amount);
+        AsyncTransferStatus status = AsyncTransferStatus.pending(transfer.id());
+        statuses.put(transfer.id(), new TrackedStatus(ownerId, status));
+        shard.queue.offer(transfer);
+        LockSupport.unpark(shard.thread);
+        return status;
+    }
+
+    /**
+     * @return состояние перевода или {@code null}, если он неизвестен, устарел или принадлежит другому пользователю
+     */
+    public AsyncTransferStatus getStatus(UUID ownerId, UUID transferId) {
+        TrackedStatus tracked = statuses.getIfPresent(transferId);
+        return tracked != null && tracked.ownerId().equals(ownerId) ? tracked.status() : null;
+    }
+
+    private int queued() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.size.get();
+        }
+        return total;
+    }
+
+    private void drain(Shard shard) {
+        while (running || !shard.queue.isEmpty()) {
+            List<PendingTransfer> batch = new ArrayList<>(maxBatchSize);
+            PendingTransfer next;
+            while (batch.size() < maxBatchSize && (next = shard.queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(50));
+                continue;
+            }
+            shard.size.addAndGet(-batch.size());
+            try {
+                commitBatch(batch);
+            } catch (RuntimeException e) {
+                log.error("Shard {} failed to apply a batch of {} transfers", shard.index, batch.size(), e);
+                batch.forEach(transfer -> complete(transfer, AsyncTransferStatus.State.FAILED, e.getMessage()));
+            }
+        }
+    }
+
+    private void commitBatch(List<PendingTransfer> batch) {
+        List<AsyncTransferStatus> results;
+        try {
+            results = batchTimer.record(() -> transactionOperations.execute(tx -> applyBatch(batch)));
+            batchSizeSummary.record(batch.size());
+        } catch (RuntimeException e) {
+            // Пакет откатился целиком (например, из-за блокировки) — применяем переводы по одному,
+            // чтобы сбой одного не задерживал остальные
+            log.warn("Micro-batch of {} transfers rolled back, applying one by one: {}", batch.size(), e.getMessage());
+            results = new ArrayList<>(batch.size());
+            for (PendingTransfer transfer : batch) {
+                results.add(applySingle(transfer));
+            }
+        }
+        results.forEach(this::complete);
+    }
+
+    private AsyncTransferStatus applySingle(PendingTransfer transfer) {
+        try {
+            return transactionOperations.execute(tx -> applyBatch(List.of(transfer))).get(0);
+        } catch (RuntimeException e) {
+            return new AsyncTransferStatus(transfer.id(), AsyncTransferStatus.State.FAILED, e.getMessage());
+        }
+    }
+
+    private List<AsyncTransferStatus> applyBatch(List<PendingTransfer> batch) {
+        Set<UUID> cardIds = new HashSet<>();
+        for (PendingTransfer transfer : batch) {
+            cardIds.add(transfer.fromCardId());
+            cardIds.add(transfer.toCardId());
+        }
+        List<Card> cards = cardRepository.findAllByIdInForUpdate(cardIds);
+        cardLedgerService.refreshPendingDeltas(cards);
+        Map<UUID, Card> locked = cards.stream()
+                .collect(Collectors.toMap(Card::getId, Function.identity()));
+
+        List<AsyncTransferStatus> results = new ArrayList<>(batch.size());
+        for (PendingTransfer transfer : batch) {
+            try {
+                Card from = ownedCard(locked, transfer.fromCardId(), transfer.ownerId());
+                Card to = ownedCard(locked, transfer.toCardId(), transfer.ownerId());
+                CardTransferServiceImpl.validateCards(from, to, transfer.amount());
+                from.setBalance(from.getBalance().minus(transfer.amount()));
+                to.setBalance(to.getBalance().plus(transfer.amount()));
+                results.add(new AsyncTransferStatus(transfer.id(), AsyncTransferStatus.State.APPLIED, null));
+            } catch (CardNotFoundException | CardNotActiveException | IllegalStateException e) {
+                results.add(new AsyncTransferStatus(transfer.id(), AsyncTransferStatus.State.REJECTED, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static Card ownedCard(Map<UUID, Card> cards, UUID cardId, UUID ownerId) {
+        Card card = cards.get(cardId);
+        if (card == null || !card.getOwner().getId().equals(ownerId)) {
+            throw new CardNotFoundException("Card not found: " + cardId);
+        }
+        return card;
+    }
+
+    private void complete(AsyncTransferStatus status) {
+        statuses.asMap().computeIfPresent(status.transferId(),
+                (id, tracked) -> new TrackedStatus(tracked.ownerId(), status));
+    }
+
+    private void complete(PendingTransfer transfer, AsyncTransferStatus.State state, String message) {
+        complete(new AsyncTransferStatus(transfer.id(), state, message));
+    }
+
+    private record PendingTransfer(UUID id, UUID ownerId, UUID fromCardId, UUID toCardId, Money amount) {
+    }
+
+    private record TrackedStatus(UUID ownerId, AsyncTransferStatus status) {
+    }
+
+    private final class Shard {
+
+        private final int index;
+        // Много производителей (потоки запросов), один потребитель (поток шарда)
+        private final Queue<PendingTransfer> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final Thread thread;
+
+        Shard(int index, Thread.Builder threadBuilder) {
+            this.index = index;
+            this.thread = threadBuilder.unstarted(() -> drain(this));
+        }
+    }
+}
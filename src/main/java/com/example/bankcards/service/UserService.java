@@ -1,6 +1,7 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.entity.User;
+import com.example.bankcards.security.AuthenticatedUser;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -9,6 +10,16 @@ public interface UserService {
 
     User getCurrentUser();
 
+    /**
+     * Текущий пользователь из контекста запроса: id, имя, статус и роли без обращения к БД.
+     */
+    AuthenticatedUser getCurrentIdentity();
+
+    /**
+     * Ссылка (прокси) на текущего пользователя — для запросов, где нужен только внешний ключ.
+     */
+    User getCurrentUserReference();
+
     String getCurrentUsername();
 
     User getByUsername(String username);
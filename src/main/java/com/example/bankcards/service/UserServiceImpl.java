@@ -1,22 +1,29 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.CurrentUserContext;
+import com.example.bankcards.security.CustomUserDetails;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final CurrentUserContext currentUserContext;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, CurrentUserContext currentUserContext) {
         this.userRepository = userRepository;
+        this.currentUserContext = currentUserContext;
     }
 
     @Override
@@ -40,4 +47,38 @@ public class UserServiceImpl implements UserService {
         String username = getCurrentUsername();
         return getByUsername(username);
     }
+
+    @Override
+    public AuthenticatedUser getCurrentIdentity() {
+        return currentUserContext.get().orElseGet(() -> {
+            AuthenticatedUser identity = resolveIdentity();
+            currentUserContext.set(identity);
+            return identity;
+        });
+    }
+
+    @Override
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentIdentity().id());
+    }
+
+    private AuthenticatedUser resolveIdentity() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.toAuthenticatedUser();
+        }
+        // Аутентификация без id пользователя (например, в тестах) — один запрос на запрос
+        User user = getCurrentUser();
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getStatus(),
+                user.getRoles().stream()
+                        .map(Role::getName)
+                        .collect(Collectors.toSet())
+        );
+    }
 }
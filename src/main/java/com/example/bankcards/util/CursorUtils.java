@@ -0,0 +1,55 @@
+package com.example.bankcards.util;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: направление сортировки и id последней выданной карты.
+ */
+public class CursorUtils {
+
+    // Границы порядка uuid в БД (побайтовое сравнение) — для первой страницы
+    public static final UUID MIN_ID = new UUID(0L, 0L);
+    public static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    private static final int CURSOR_LENGTH = 1 + 2 * Long.BYTES;
+
+    private CursorUtils() {
+    }
+
+    public static String encode(UUID lastId, Sort.Direction direction) {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_LENGTH)
+                .put((byte) (direction.isAscending() ? 'A' : 'D'))
+                .putLong(lastId.getMostSignificantBits())
+                .putLong(lastId.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static Cursor decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (bytes.length != CURSOR_LENGTH || (bytes[0] != 'A' && bytes[0] != 'D')) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, 2 * Long.BYTES);
+        UUID lastId = new UUID(buffer.getLong(), buffer.getLong());
+        return new Cursor(lastId, bytes[0] == 'A' ? Sort.Direction.ASC : Sort.Direction.DESC);
+    }
+
+    /**
+     * Курсор для первой страницы: позиция перед первой картой в заданном направлении.
+     */
+    public static Cursor start(Sort.Direction direction) {
+        return new Cursor(direction.isAscending() ? MIN_ID : MAX_ID, direction);
+    }
+
+    public record Cursor(UUID lastId, Sort.Direction direction) {
+    }
+}
@@ -12,4 +12,11 @@ public class SortingUtils {
         }
         return sortSpec;
     }
+
+    public static Sort.Direction getDirection(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.Direction.ASC;
+        }
+        return Sort.Direction.fromString(sort);
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.bankcards;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Общие тестовые данные: пользователи с ролями и активные карты.
+ * Не компонент: тест подключает его явно через {@code @Import(TestFixtures.class)}.
+ */
+public class TestFixtures {
+
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public TestFixtures(CardRepository cardRepository,
+                        UserRepository userRepository,
+                        RoleRepository roleRepository,
+                        PasswordEncoder passwordEncoder) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * Удаляет карты и пользователей; роли из миграций остаются.
+     */
+    public void clear() {
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    public Role role(String name) {
+        return roleRepository.findAll().stream()
+                .filter(role -> name.equals(role.getName()))
+                .findFirst()
+                .orElseGet(() -> roleRepository.save(new Role(null, name)));
+    }
+
+    /**
+     * Активный пользователь с одной ролью; пароль сохраняется закодированным, под ним можно войти через {@code /auth/login}.
+     */
+    public User user(String username, String password, String roleName) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password(passwordEncoder.encode(password))
+                .roles(Set.of(role(roleName)))
+                .status(User.UserStatus.ACTIVE)
+                .build());
+    }
+
+    /**
+     * Несохранённая активная карта в USD со сроком 12/2030 и нулевым балансом; поля можно переопределить.
+     */
+    public Card.CardBuilder cardBuilder(User owner, String last4) {
+        return Card.builder()
+                .cardNumberEnc("enc" + last4)
+                .last4(last4)
+                .balance(Money.ZERO)
+                .owner(owner)
+                .holderName("holderName")
+                .expiryMonth(12)
+                .expiryYear(2030)
+                .status(Card.CardStatus.ACTIVE)
+                .currency("USD");
+    }
+
+    public Card card(User owner, String last4, Money balance) {
+        return cardRepository.save(cardBuilder(owner, last4).balance(balance).build());
+    }
+
+    /**
+     * {@code count} карт с номерами 0000, 0001, ... и одинаковым балансом.
+     */
+    public List<UUID> cards(User owner, int count, Money balance) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(card(owner, String.format("%04d", i), balance).getId());
+        }
+        return ids;
+    }
+}
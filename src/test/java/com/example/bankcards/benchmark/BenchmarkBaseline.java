@@ -0,0 +1,87 @@
+package com.example.bankcards.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сравнение результатов JMH в формате JSON ({@code -rf json}) с сохранённой базовой линией.
+ * Результат идентифицируется именем бенчмарка и значениями {@code @Param}; для режима {@code thrpt}
+ * лучше большее значение, для остальных режимов — меньшее.
+ */
+final class BenchmarkBaseline {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    record Score(String mode, double score, String unit) {
+    }
+
+    /**
+     * @param change относительное ухудшение: {@code 0.25} — на 25% медленнее базовой линии
+     */
+    record Regression(String benchmark, Score baseline, Score current, double change) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.3f -> %.3f %s (%+.1f%%)",
+                    benchmark, baseline.score, current.score, current.unit, change * 100);
+        }
+    }
+
+    private BenchmarkBaseline() {
+    }
+
+    static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : OBJECT_MAPPER.readTree(file.toFile())) {
+            JsonNode primaryMetric = result.get("primaryMetric");
+            scores.put(key(result), new Score(
+                    result.get("mode").asText(),
+                    primaryMetric.get("score").asDouble(),
+                    primaryMetric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    /**
+     * Бенчмарки без базовой линии или с другим режимом и единицами не сравниваются.
+     */
+    static List<Regression> regressions(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        List<Regression> regressions = new ArrayList<>();
+        current.forEach((benchmark, score) -> {
+            Score base = baseline.get(benchmark);
+            if (base == null || !base.mode().equals(score.mode()) || !base.unit().equals(score.unit())) {
+                return;
+            }
+            double change = "thrpt".equals(score.mode())
+                    ? base.score() / score.score() - 1
+                    : score.score() / base.score() - 1;
+            if (change > threshold) {
+                regressions.add(new Regression(benchmark, base, score, change));
+            }
+        });
+        return regressions;
+    }
+
+    private static String key(JsonNode result) {
+        String benchmark = result.get("benchmark").asText();
+        JsonNode params = result.get("params");
+        if (params == null || params.isEmpty()) {
+            return benchmark;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> param = it.next();
+            sorted.put(param.getKey(), param.getValue().asText());
+        }
+        return benchmark + sorted;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.bankcards.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BenchmarkBaselineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("JMH JSON should be keyed by benchmark name and sorted params")
+    void read_shouldKeyResultsByBenchmarkAndParams() throws Exception {
+        // Arrange
+        Path file = dir.resolve("result.json");
+        Files.writeString(file, """
+                [
+                  {"benchmark": "a.B.run", "mode": "avgt", "params": {"size": "10", "cache": "0"},
+                   "primaryMetric": {"score": 12.5, "scoreUnit": "ns/op"}},
+                  {"benchmark": "a.B.other", "mode": "thrpt",
+                   "primaryMetric": {"score": 1000.0, "scoreUnit": "ops/s"}}
+                ]
+                """);
+
+        // Act
+        Map<String, BenchmarkBaseline.Score> scores = BenchmarkBaseline.read(file);
+
+        // Assert
+        assertEquals(new BenchmarkBaseline.Score("avgt", 12.5, "ns/op"), scores.get("a.B.run{cache=0, size=10}"));
+        assertEquals(new BenchmarkBaseline.Score("thrpt", 1000.0, "ops/s"), scores.get("a.B.other"));
+    }
+
+    @Test
+    @DisplayName("Only slowdowns beyond the threshold should be reported, respecting the benchmark mode")
+    void regressions_shouldReportSlowdownsBeyondThreshold() {
+        // Arrange
+        Map<String, BenchmarkBaseline.Score> baseline = Map.of(
+                "time.slower", new BenchmarkBaseline.Score("avgt", 100, "ns/op"),
+                "time.withinThreshold", new BenchmarkBaseline.Score("avgt", 100, "ns/op"),
+                "time.faster", new BenchmarkBaseline.Score("avgt", 100, "ns/op"),
+                "ops.slower", new BenchmarkBaseline.Score("thrpt", 1000, "ops/s"),
+                "ops.faster", new BenchmarkBaseline.Score("thrpt", 1000, "ops/s"));
+        Map<String, BenchmarkBaseline.Score> current = Map.of(
+                "time.slower", new BenchmarkBaseline.Score("avgt", 150, "ns/op"),
+                "time.withinThreshold", new BenchmarkBaseline.Score("avgt", 115, "ns/op"),
+                "time.faster", new BenchmarkBaseline.Score("avgt", 50, "ns/op"),
+                "ops.slower", new BenchmarkBaseline.Score("thrpt", 500, "ops/s"),
+                "ops.faster", new BenchmarkBaseline.Score("thrpt", 2000, "ops/s"),
+                "time.new", new BenchmarkBaseline.Score("avgt", 1_000_000, "ns/op"));
+
+        // Act
+        List<BenchmarkBaseline.Regression> regressions = BenchmarkBaseline.regressions(baseline, current, 0.2);
+
+        // Assert
+        assertEquals(2, regressions.size());
+        assertTrue(regressions.stream().anyMatch(r -> r.benchmark().equals("time.slower") && Math.abs(r.change() - 0.5) < 1e-9));
+        assertTrue(regressions.stream().anyMatch(r -> r.benchmark().equals("ops.slower") && Math.abs(r.change() - 1.0) < 1e-9));
+    }
+}
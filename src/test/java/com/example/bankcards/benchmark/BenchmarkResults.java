@@ -0,0 +1,22 @@
+package com.example.bankcards.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Результаты бенчмарков вне JMH в {@code target/benchmark/<name>.txt}, как {@code target/jmh-result.json} у JMH:
+ * профиль test выводит в лог только WARN, а результат — не предупреждение.
+ */
+final class BenchmarkResults {
+
+    private static final Path DIR = Path.of("target", "benchmark");
+
+    private BenchmarkResults() {
+    }
+
+    static Path write(String name, String result) throws IOException {
+        Files.createDirectories(DIR);
+        return Files.writeString(DIR.resolve(name + ".txt"), result + System.lineSeparator());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardMapper;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование карт в DTO с маскированием номера: одна карта и страницы выгрузки разного размера.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardMapperBenchmark {
+
+    private Card card;
+
+    @Setup
+    public void setUp() {
+        card = card(owner(), 0);
+    }
+
+    @State(Scope.Thread)
+    public static class CardPage {
+
+        @Param({"100", "1000", "10000"})
+        public int pageSize;
+
+        private Page<Card> page;
+
+        @Setup
+        public void setUp() {
+            User owner = owner();
+            List<Card> cards = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                cards.add(card(owner, i));
+            }
+            page = new PageImpl<>(cards, PageRequest.of(0, pageSize), pageSize * 10L);
+        }
+    }
+
+    @Benchmark
+    public CardDto toDto() {
+        return CardMapper.toDto(card);
+    }
+
+    @Benchmark
+    public Page<CardDto> toCardDtoPage(CardPage state) {
+        return CardMapper.toCardDtoPage(state.page);
+    }
+
+    private static User owner() {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username("user")
+                .status(User.UserStatus.ACTIVE)
+                .build();
+    }
+
+    private static Card card(User owner, int i) {
+        return Card.builder()
+                .id(UUID.randomUUID())
+                .owner(owner)
+                .cardNumberEnc("enc" + i)
+                .last4(String.format("%04d", i % 10_000))
+                .holderName("holderName")
+                .expiryMonth(12)
+                .expiryYear(2030)
+                .status(Card.CardStatus.ACTIVE)
+                .balance(Money.ofMinor(100_000 + i))
+                .currency("USD")
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.InProcessUserSecurityEventBroadcaster;
+import com.example.bankcards.security.UserDetailsCache;
+import com.example.bankcards.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка пользователя при логине из прогретого кэша: стоимость — сборка authorities
+ * и нового {@code CustomUserDetails} на каждый вызов.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomUserDetailsServiceBenchmark {
+
+    @Param({"1", "8"})
+    public int roleCount;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(new Role(null, i == 0 ? "ROLE_USER" : "ROLE_EXTRA_" + i));
+        }
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("user")
+                .password("password")
+                .roles(roles)
+                .status(User.UserStatus.ACTIVE)
+                .build();
+        // Репозиторий вызывается только при первом промахе кэша, поэтому накладные расходы мока не попадают в замер
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        UserDetailsCache userDetailsCache = new UserDetailsCache(10_000, Duration.ofMinutes(5),
+                new InProcessUserSecurityEventBroadcaster(), new SimpleMeterRegistry());
+        userDetailsService = new CustomUserDetailsService(userRepository, userDetailsCache);
+        userDetailsService.loadUserByUsername("user");
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername("user");
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Прогон всех JMH-бенчмарков пакета с результатом в {@code target/jmh-result.json} и сравнение с базовой линией
+ * {@code src/test/resources/benchmark/jmh-baseline.json}: тест падает, если бенчмарк медленнее базовой линии
+ * больше чем на {@code benchmark.regression-threshold} (по умолчанию 0.25, т.е. 25%).
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark -Dtest=JmhRegressionBenchmarkTest}; подмножество — {@code -Dbenchmark.include=<regex>},
+ * обновить базовую линию на текущей машине — {@code -Dbenchmark.update-baseline=true}.
+ */
+@Slf4j
+@Tag("benchmark")
+class JmhRegressionBenchmarkTest {
+
+    private static final Path RESULT = Path.of("target", "jmh-result.json");
+    private static final Path BASELINE = Path.of("src", "test", "resources", "benchmark", "jmh-baseline.json");
+    private static final String DEFAULT_INCLUDE = "com\\.example\\.bankcards\\.benchmark\\.\\w+Benchmark\\.";
+
+    @Test
+    void benchmarksShouldNotRegressAgainstBaseline() throws Exception {
+        Files.createDirectories(RESULT.getParent());
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.include", DEFAULT_INCLUDE))
+                .result(RESULT.toString())
+                .resultFormat(ResultFormatType.JSON)
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+
+        if (Boolean.getBoolean("benchmark.update-baseline")) {
+            Files.createDirectories(BASELINE.getParent());
+            Files.copy(RESULT, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("Benchmark baseline updated: {}", BASELINE.toAbsolutePath());
+            return;
+        }
+
+        double threshold = Double.parseDouble(System.getProperty("benchmark.regression-threshold", "0.25"));
+        List<BenchmarkBaseline.Regression> regressions = BenchmarkBaseline.regressions(
+                BenchmarkBaseline.read(BASELINE), BenchmarkBaseline.read(RESULT), threshold);
+        regressions.forEach(regression -> log.warn("Regression: {}", regression));
+        assertTrue(regressions.isEmpty(), () -> "Benchmarks slower than baseline by more than "
+                + Math.round(threshold * 100) + "%: " + regressions);
+    }
+}
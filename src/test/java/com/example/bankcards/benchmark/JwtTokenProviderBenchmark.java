@@ -0,0 +1,76 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск токена при логине и проверка токена на каждом запросе: с кэшем проверенных токенов и без него.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark_secret_key_which_is_at_least_32_chars_long";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private AuthenticatedUser user;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 60, 10_000);
+        user = new AuthenticatedUser(UUID.randomUUID(), "user", User.UserStatus.ACTIVE, Set.of("ROLE_USER"));
+    }
+
+    @State(Scope.Thread)
+    public static class VerifiedToken {
+
+        // 0 — кэш не удерживает токены, каждый вызов заново проверяет подпись
+        @Param({"10000", "0"})
+        public long verifiedCacheSize;
+
+        private JwtTokenProvider jwtTokenProvider;
+        private String token;
+
+        @Setup
+        public void setUp() {
+            jwtTokenProvider = new JwtTokenProvider(SECRET, 60, verifiedCacheSize);
+            token = jwtTokenProvider.generateToken(
+                    new AuthenticatedUser(UUID.randomUUID(), "user", User.UserStatus.ACTIVE, Set.of("ROLE_USER")), 0);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(user, 0);
+    }
+
+    @Benchmark
+    public String extractSubject(VerifiedToken state) {
+        return state.jwtTokenProvider.extractSubject(state.token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid(VerifiedToken state) {
+        return state.jwtTokenProvider.isTokenValid(state.token);
+    }
+}
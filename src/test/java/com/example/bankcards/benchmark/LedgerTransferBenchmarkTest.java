@@ -0,0 +1,115 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.service.CardLedgerService;
+import com.example.bankcards.service.CardTransferServiceImpl;
+import com.example.bankcards.service.ShardedTransferExecutor;
+import com.example.bankcards.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Сравнение пропускной способности переводов: обновление карт на месте против записи в журнал.
+ * Запуск: {@code mvn test -Pbenchmark}; результат — в {@code target/benchmark/ledger-transfer-<mode>.txt}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+class LedgerTransferBenchmarkTest {
+
+    private static final int CARDS = 4;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 4000;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private CardLedgerService cardLedgerService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private ObjectProvider<ShardedTransferExecutor> asyncExecutor;
+
+    private User owner;
+    private List<UUID> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        testFixtures.clear();
+        owner = testFixtures.user("benchmark", "password", "ROLE_USER");
+        cardIds = testFixtures.cards(owner, CARDS, Money.parse("1000000.00"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CardTransferServiceImpl.TransferMode.class)
+    void transferThroughput(CardTransferServiceImpl.TransferMode mode) throws Exception {
+        CardTransferServiceImpl service = new CardTransferServiceImpl(cardRepository, cardLedgerService, userService,
+                transactionOperations, asyncExecutor, new SimpleMeterRegistry(), mode, 10, Duration.ofMillis(5), 500);
+        AuthenticatedUser principal = new AuthenticatedUser(owner.getId(), owner.getUsername(),
+                User.UserStatus.ACTIVE, Set.of("ROLE_USER"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+                try {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int from = random.nextInt(CARDS);
+                    int to = (from + 1 + random.nextInt(CARDS - 1)) % CARDS;
+                    service.transferBetweenOwnCards(cardIds.get(from), cardIds.get(to), "1.00");
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        String result = String.format("mode=%s transfers=%d threads=%d time=%.2fs throughput=%.0f tx/s",
+                mode, TRANSFERS, THREADS, seconds, TRANSFERS / seconds);
+        log.info("{} -> {}", result, BenchmarkResults.write("ledger-transfer-" + mode.name().toLowerCase(), result));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор суммы, проверка остатка, списание и зачисление — как в переводе между картами:
+ * прежний путь на {@link BigDecimal} против {@link Money}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final String[] AMOUNTS = {"100.00", "0.01", "12345.67", "999", "5.5", "250.10", "73.99", "1.00"};
+
+    private int next;
+    private BigDecimal fromBalanceDecimal;
+    private BigDecimal toBalanceDecimal;
+    private Money fromBalance;
+    private Money toBalance;
+
+    @Setup
+    public void setUp() {
+        fromBalanceDecimal = new BigDecimal("1000000.00");
+        toBalanceDecimal = new BigDecimal("500.00");
+        fromBalance = Money.of(fromBalanceDecimal);
+        toBalance = Money.of(toBalanceDecimal);
+    }
+
+    @Benchmark
+    public void bigDecimalTransfer(Blackhole blackhole) {
+        BigDecimal amount = new BigDecimal(nextAmount());
+        if (amount.compareTo(BigDecimal.ZERO) <= 0 || fromBalanceDecimal.compareTo(amount) < 0) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(fromBalanceDecimal.subtract(amount));
+        blackhole.consume(toBalanceDecimal.add(amount));
+    }
+
+    @Benchmark
+    public void moneyTransfer(Blackhole blackhole) {
+        Money amount = Money.parse(nextAmount());
+        if (!amount.isPositive() || fromBalance.isLessThan(amount)) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(fromBalance.minus(amount).minorUnits());
+        blackhole.consume(toBalance.plus(amount).minorUnits());
+    }
+
+    private String nextAmount() {
+        next = (next + 1) & (AMOUNTS.length - 1);
+        return AMOUNTS[next];
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Запуск {@link MoneyArithmeticBenchmark} через JMH с профилировщиком GC: время и аллокации на операцию.
+ * Запуск: {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class MoneyArithmeticBenchmarkTest {
+
+    @Test
+    void moneyShouldAllocateLessThanBigDecimal() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(MoneyArithmeticBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, Double> allocated = new HashMap<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+            double nanos = result.getPrimaryResult().getScore();
+            double bytes = result.getSecondaryResults().get("gc.alloc.rate.norm").getScore();
+            allocated.put(method, bytes);
+            log.info("{}: {} ns/op, {} B/op", method, String.format("%.1f", nanos), String.format("%.1f", bytes));
+        }
+        assertTrue(allocated.get("moneyTransfer") < allocated.get("bigDecimalTransfer"),
+                "Money path should allocate less than BigDecimal: " + allocated);
+    }
+}
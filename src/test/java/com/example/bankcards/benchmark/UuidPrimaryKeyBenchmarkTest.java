@@ -0,0 +1,91 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.UuidV7Generator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Вставка в таблицу с первичным ключом UUID: случайные v4 против упорядоченных по времени v7.
+ * На PostgreSQL дополнительно выводится размер индекса первичного ключа.
+ * <p>
+ * Запуск: {@code mvn test -Pbenchmark -Dtest=UuidPrimaryKeyBenchmarkTest}; на PostgreSQL и 10M строк —
+ * {@code -Dbenchmark.uuid.rows=10000000 -Dspring.datasource.url=jdbc:postgresql://...}.
+ * Результат — в {@code target/benchmark/uuid-primary-key-<version>.txt}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class UuidPrimaryKeyBenchmarkTest {
+
+    private static final String TABLE = "uuid_pk_benchmark";
+    private static final int BATCH_SIZE = 1000;
+
+    private final int rows = Integer.getInteger("benchmark.uuid.rows", 500_000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists " + TABLE);
+    }
+
+    @ParameterizedTest
+    @EnumSource(IdVersion.class)
+    void insertThroughput(IdVersion version) throws Exception {
+        jdbcTemplate.execute("drop table if exists " + TABLE);
+        jdbcTemplate.execute("create table " + TABLE + " (id uuid primary key, payload varchar(64) not null)");
+
+        long started = System.nanoTime();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{version.ids.get(), "card-" + i});
+            if (batch.size() == BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate("insert into " + TABLE + " (id, payload) values (?, ?)", batch);
+                batch.clear();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        String result = String.format("uuid=%s rows=%d time=%.2fs throughput=%d rows/s pkIndex=%s",
+                version, rows, seconds, Math.round(rows / seconds), indexSize());
+        log.info("{} -> {}", result, BenchmarkResults.write("uuid-primary-key-" + version.name().toLowerCase(), result));
+    }
+
+    private String indexSize() {
+        String product = jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return "n/a on " + product;
+        }
+        return jdbcTemplate.queryForObject(
+                "select pg_size_pretty(pg_relation_size(i.indexrelid)) from pg_index i " +
+                        "where i.indrelid = ?::regclass and i.indisprimary",
+                String.class, TABLE);
+    }
+
+    enum IdVersion {
+        V4(UUID::randomUUID),
+        V7(UuidV7Generator::next);
+
+        private final Supplier<UUID> ids;
+
+        IdVersion(Supplier<UUID> ids) {
+            this.ids = ids;
+        }
+    }
+}
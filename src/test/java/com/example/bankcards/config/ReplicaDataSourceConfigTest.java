@@ -0,0 +1,90 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Реплика — второй пул к той же H2: проверяется, что на реплику уходят только транзакции методов с {@link ReplicaRead}.
+ */
+@SpringBootTest(properties = {
+        "datasource.replicas.enabled=true",
+        "datasource.replicas.urls=jdbc:h2:mem:bank_test;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "datasource.replicas.health-check-interval=1h",
+        "card.ledger.compaction-interval=1h",
+        "idempotency.purge-interval=1h"
+})
+@ActiveProfiles("test")
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReplicaReader replicaReader;
+
+    @Test
+    @DisplayName("Only @ReplicaRead transactions should use the replica pool, other reads stay on the primary")
+    void jpaTransactions_shouldBeRoutedByReplicaMarker() {
+        // Arrange
+        Counter replica = meterRegistry.get("datasource.routing.connections").tag("target", "replica").counter();
+        Counter primary = meterRegistry.get("datasource.routing.connections").tag("target", "primary").counter();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Act & Assert
+        double replicaBefore = replica.count();
+        double primaryBefore = primary.count();
+        replicaReader.count();
+        assertEquals(replicaBefore + 1, replica.count());
+        assertEquals(primaryBefore, primary.count());
+
+        readOnly.executeWithoutResult(tx -> cardRepository.count());
+        assertEquals(replicaBefore + 1, replica.count());
+        assertEquals(primaryBefore + 1, primary.count());
+
+        cardRepository.count();
+        assertEquals(replicaBefore + 1, replica.count());
+        assertEquals(primaryBefore + 2, primary.count());
+    }
+
+    @TestConfiguration
+    static class ReplicaReaderConfig {
+
+        @Bean
+        ReplicaReader replicaReader(CardRepository cardRepository) {
+            return new ReplicaReader(cardRepository);
+        }
+    }
+
+    static class ReplicaReader {
+
+        private final CardRepository cardRepository;
+
+        ReplicaReader(CardRepository cardRepository) {
+            this.cardRepository = cardRepository;
+        }
+
+        @ReplicaRead
+        public long count() {
+            return cardRepository.count();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Маршрутизация на трёх отдельных H2: в каждой таблица {@code node} с именем узла.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private HikariDataSource replica0;
+    private HikariDataSource replica1;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replica0 = node("replica-0");
+        replica1 = node("replica-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should go to replicas in turn, other transactions to the primary")
+    void roundRobin_shouldSendOnlyReadOnlyTransactionsToReplicas() {
+        // Arrange
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        // Act & Assert
+        assertEquals("primary", routing.read(false));
+        assertEquals("replica-0", routing.read(true));
+        assertEquals("replica-1", routing.read(true));
+        assertEquals("replica-0", routing.read(true));
+        assertEquals("primary", routing.jdbcTemplate.queryForObject("select name from node", String.class));
+        assertEquals(3, meterRegistry.get("datasource.routing.connections").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    @DisplayName("Read-only transactions without the replica marker should stay on the primary")
+    void unmarkedReadOnlyTransaction_shouldUsePrimary() {
+        // Arrange
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+        TransactionTemplate readOnly = new TransactionTemplate(routing.transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        // Act
+        String node = readOnly.execute(tx -> routing.jdbcTemplate.queryForObject("select name from node", String.class));
+
+        // Assert
+        assertEquals("primary", node);
+        assertEquals(0, meterRegistry.get("datasource.routing.connections").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    @DisplayName("Unavailable replicas should be skipped and reads should fall back to the primary")
+    void checkReplicas_shouldExcludeUnavailableReplicas() {
+        // Arrange
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+
+        // Act & Assert
+        replica0.close();
+        routing.dataSource.checkReplicas();
+        assertEquals("replica-1", routing.read(true));
+        assertEquals("replica-1", routing.read(true));
+
+        replica1.close();
+        routing.dataSource.checkReplicas();
+        assertEquals("primary", routing.read(true));
+        assertEquals(1, meterRegistry.get("datasource.replica.fallbacks").counter().count());
+    }
+
+    @Test
+    @DisplayName("Least-connections selection should prefer the replica with fewer active connections")
+    void leastConnections_shouldPreferLessBusyReplica() throws Exception {
+        // Arrange
+        Routing routing = routing(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS);
+
+        // Act & Assert
+        try (Connection busy = replica0.getConnection()) {
+            assertEquals("replica-1", routing.read(true));
+        }
+        try (Connection busy = replica1.getConnection()) {
+            assertEquals("replica-0", routing.read(true));
+        }
+    }
+
+    private Routing routing(ReplicaRoutingDataSource.Selection selection) {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                node("primary"), List.of(replica0, replica1), selection, Duration.ofSeconds(5), meterRegistry);
+        dataSource.afterPropertiesSet();
+        return new Routing(dataSource);
+    }
+
+    private HikariDataSource node(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        dataSources.add(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static final class Routing {
+
+        private final ReplicaRoutingDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        Routing(ReplicaRoutingDataSource dataSource) {
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(proxy);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        }
+
+        // Read-only чтение помечается так же, как метод с @ReplicaRead
+        String read(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            ReplicaRoutingDataSource.setReplicaRead(readOnly);
+            try {
+                return transactionTemplate.execute(tx -> jdbcTemplate.queryForObject("select name from node", String.class));
+            } finally {
+                ReplicaRoutingDataSource.setReplicaRead(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10), 12);
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    @DisplayName("Blocking inside synchronized on a virtual thread should be recorded as pinning")
+    void onPinned_shouldRecordPinnedTime() throws Exception {
+        // Arrange
+        Object lock = new Object();
+        Timer pinned = meterRegistry.get("jvm.threads.virtual.pinned").timer();
+
+        // Act
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(Duration.ofMillis(50));
+            }
+        }).join();
+
+        // Assert: события JFR доставляются потоку записи с задержкой
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinned.count() == 0 && System.nanoTime() < deadline) {
+            sleep(Duration.ofMillis(50));
+        }
+        assertTrue(pinned.count() >= 1);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
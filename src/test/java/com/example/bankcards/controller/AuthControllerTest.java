@@ -1,5 +1,6 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.JwtResponse;
 import com.example.bankcards.dto.LoginRequest;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
@@ -15,9 +16,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -75,6 +78,68 @@ class AuthControllerTest {
 
     }
 
+    @Test
+    void loginToken_ShouldAuthorizeRequests() throws Exception {
+        String token = login("testuser", "password");
+
+        mockMvc.perform(get("/api/cards")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void loginToken_ShouldBeRejected_AfterUserIsBlocked() throws Exception {
+        String token = login("testuser", "password");
+
+        User user = userRepository.findByUsername("testuser").orElseThrow();
+        user.setStatus(User.UserStatus.BLOCKED);
+        userRepository.save(user);
+
+        mockMvc.perform(get("/api/cards")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginToken_ShouldBeRejected_AfterRolesChange() throws Exception {
+        String token = login("testuser", "password");
+
+        User user = userRepository.findByUsername("testuser").orElseThrow();
+        user.setRoles(new HashSet<>(Set.of(new Role(UUID.fromString("5c7387a6-ea61-4e78-b118-2e0f1baa3e36"), "ROLE_ADMIN"))));
+        userRepository.save(user);
+
+        mockMvc.perform(get("/api/cards")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginToken_ShouldBeRejected_AfterPasswordChange() throws Exception {
+        String token = login("testuser", "password");
+
+        User user = userRepository.findByUsername("testuser").orElseThrow();
+        user.setPassword(passwordEncoder.encode("new-password"));
+        userRepository.save(user);
+
+        mockMvc.perform(get("/api/cards")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void loginToken_ShouldStayValid_AfterUnrelatedUserUpdate() throws Exception {
+        String token = login("testuser", "password");
+
+        User user = userRepository.findByUsername("testuser").orElseThrow();
+        user.setStatus(user.getStatus());
+        user.setUsername("testuser");
+        userRepository.save(user);
+
+        mockMvc.perform(get("/api/cards")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void login_UserNotFound() throws Exception {
         LoginRequest request = new LoginRequest("nonexistentuser", "password");
@@ -84,4 +149,15 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnauthorized());
     }
+
+    private String login(String username, String password) throws Exception {
+        String response = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(username, password))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(response, JwtResponse.class).token();
+    }
 }
@@ -0,0 +1,265 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.JwtResponse;
+import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.UserDetailsCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет количество SQL-запросов на каждый эндпоинт при аутентификации настоящим JWT.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+class CardControllerQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    private Statistics statistics;
+    private User regularUser;
+    private Card card1;
+    private Card card2;
+    private String adminToken;
+    private String userToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        testFixtures.clear();
+        testFixtures.user("admin", "password", "ROLE_ADMIN");
+        regularUser = testFixtures.user("user", "password", "ROLE_USER");
+        card1 = testFixtures.card(regularUser, "4444", Money.parse("1000.00"));
+        card2 = testFixtures.card(regularUser, "8888", Money.parse("500.00"));
+
+        adminToken = login("admin");
+        userToken = login("user");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // --- ADMIN ---
+
+    @Test
+    void createCard_shouldTakeOwnerFromSecondLevelCacheAndInsert() throws Exception {
+        CreateCardRequest request = new CreateCardRequest(
+                regularUser.getId(), "enc123", "1234", "Test Holder", 12, 2030, "USD", BigDecimal.TEN);
+
+        assertStatements(1, post("/api/cards")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    @Test
+    void createCard_repeatedRequest_shouldLoadOwnerOnlyOnce() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        CreateCardRequest first = new CreateCardRequest(
+                regularUser.getId(), "enc123", "1234", "Test Holder", 12, 2030, "USD", BigDecimal.TEN);
+        CreateCardRequest second = new CreateCardRequest(
+                regularUser.getId(), "enc567", "5678", "Test Holder", 12, 2030, "USD", BigDecimal.TEN);
+
+        // Владелец с ролями читается из БД один раз, дальше — из кэша второго уровня
+        assertStatements(2, post("/api/cards")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(first)));
+        assertStatements(1, post("/api/cards")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(second)));
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void login_afterUserDetailsEviction_shouldFindUserByNaturalIdCache() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        MockHttpServletRequestBuilder login = post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("user", "password")));
+
+        userDetailsCache.invalidate("user");
+        assertStatements(1, login);
+        userDetailsCache.invalidate("user");
+        assertStatements(0, login);
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    void changeCardStatus_shouldLoadCardAndUpdate() throws Exception {
+        assertStatements(2, patch("/api/cards/status")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("cardId", card1.getId().toString())
+                .param("status", Card.CardStatus.BLOCKED.name()));
+    }
+
+    @Test
+    void deleteCard_shouldRunSingleDelete() throws Exception {
+        assertStatements(1, delete("/api/cards/" + card1.getId())
+                .header("Authorization", "Bearer " + adminToken));
+    }
+
+    @Test
+    void getAllCards_shouldProjectPageWithSingleJoin() throws Exception {
+        assertStatements(1, get("/api/cards/all")
+                .header("Authorization", "Bearer " + adminToken));
+    }
+
+    @Test
+    void getAllCards_fullPageOfHundredCards_shouldRunAtMostTwoStatements() throws Exception {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            cards.add(testFixtures.cardBuilder(regularUser, String.format("%04d", i)).balance(Money.parse("1.00")).build());
+        }
+        cardRepository.saveAll(cards);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/cards/all")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("page", "0")
+                        .param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(100));
+
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Page of 100 cards ran " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(0, statistics.getEntityLoadCount(), "Listing must not load managed entities");
+    }
+
+    // --- USER ---
+
+    @Test
+    void getUserCards_shouldProjectPageWithSingleJoin() throws Exception {
+        assertStatements(1, get("/api/cards")
+                .header("Authorization", "Bearer " + userToken));
+    }
+
+    @Test
+    void scrollUserCards_shouldRunSingleSeekQuery() throws Exception {
+        assertStatements(1, get("/api/cards/scroll")
+                .header("Authorization", "Bearer " + userToken)
+                .param("size", "1"));
+    }
+
+    @Test
+    void getBalance_shouldLoadCardAndPendingLedgerDelta() throws Exception {
+        assertStatements(2, get("/api/cards/" + card1.getId() + "/balance")
+                .header("Authorization", "Bearer " + userToken));
+    }
+
+    @Test
+    void requestBlockCard_shouldLoadCardAndUpdate() throws Exception {
+        assertStatements(2, post("/api/cards/" + card1.getId() + "/block-request")
+                .header("Authorization", "Bearer " + userToken));
+    }
+
+    @Test
+    void transferBetweenOwnCards_shouldLockBothCardsAndBatchUpdates() throws Exception {
+        // Блокировка карт, не свёрнутые проводки под блокировкой и пакетный UPDATE
+        assertStatements(3, post("/api/cards/transfer")
+                .header("Authorization", "Bearer " + userToken)
+                .param("fromCardId", card1.getId().toString())
+                .param("toCardId", card2.getId().toString())
+                .param("amount", "100.00"));
+    }
+
+    @Test
+    void transferBetweenOwnCards_repeatedIdempotencyKey_shouldNotTouchDatabase() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MockHttpServletRequestBuilder request = post("/api/cards/transfer")
+                .header("Authorization", "Bearer " + userToken)
+                .header("Idempotency-Key", key)
+                .param("fromCardId", card1.getId().toString())
+                .param("toCardId", card2.getId().toString())
+                .param("amount", "100.00");
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertStatements(0, request);
+
+        assertEquals(Money.parse("900.00"), cardRepository.findById(card1.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void transferBatch_shouldLockAllCardsOnceAndBatchUpdates() throws Exception {
+        Card card3 = testFixtures.card(regularUser, "9999", Money.parse("10.00"));
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest(card1.getId(), card2.getId(), "100.00"),
+                new TransferRequest(card2.getId(), card3.getId(), "50.00"),
+                new TransferRequest(card3.getId(), card1.getId(), "5.00"),
+                new TransferRequest(card1.getId(), card3.getId(), "1.00"));
+
+        assertStatements(3, post("/api/cards/transfer/batch")
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transfers)));
+
+        assertEquals(Money.parse("904.00"), cardRepository.findById(card1.getId()).orElseThrow().getBalance());
+        assertEquals(Money.parse("550.00"), cardRepository.findById(card2.getId()).orElseThrow().getBalance());
+        assertEquals(Money.parse("56.00"), cardRepository.findById(card3.getId()).orElseThrow().getBalance());
+    }
+
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Unexpected number of SQL statements");
+    }
+
+    private String login(String username) throws Exception {
+        String response = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(username, "password"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(response, JwtResponse.class).token();
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AsyncTransferStatus;
+import com.example.bankcards.dto.BulkCardDeleteRequest;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.CardFilter;
 import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResult;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.CardTransferService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,10 +32,19 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -49,6 +68,9 @@ public class CardControllerTest {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
     @MockitoBean
     private CardTransferService cardTransferService;
 
@@ -88,7 +110,7 @@ public class CardControllerTest {
         card1 = Card.builder()
                 .cardNumberEnc("1111222233334444")
                 .last4("4444")
-                .balance(new BigDecimal("1000.00"))
+                .balance(Money.parse("1000.00"))
                 .owner(regularUser)
                 .holderName("holderName")
                 .expiryMonth(12)
@@ -101,7 +123,7 @@ public class CardControllerTest {
         card2 = Card.builder()
                 .cardNumberEnc("5555666677778888")
                 .last4("8888")
-                .balance(new BigDecimal("500.00"))
+                .balance(Money.parse("500.00"))
                 .owner(regularUser)
                 .holderName("holderName")
                 .expiryMonth(12)
@@ -134,6 +156,34 @@ public class CardControllerTest {
                 .andExpect(jsonPath("$.owner").value(regularUser.getUsername()));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void createCard_repeatedIdempotencyKey_shouldCreateOnce() throws Exception {
+        // Arrange
+        CreateCardRequest request = new CreateCardRequest(
+                regularUser.getId(), "enc456", "4567", "Test Holder", 12, 2028, "USD", BigDecimal.TEN);
+        String key = UUID.randomUUID().toString();
+        long cardsBefore = cardRepository.count();
+
+        // Act
+        String first = mockMvc.perform(post("/api/cards")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(post("/api/cards")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertEquals(cardsBefore + 1, cardRepository.count());
+        assertEquals(objectMapper.readTree(first).get("id"), objectMapper.readTree(second).get("id"));
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void changeCardStatus_asAdmin_shouldSucceed() throws Exception {
@@ -179,8 +229,271 @@ public class CardControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void scrollAllCards_asAdmin_shouldWalkAllCardsDescending() throws Exception {
+        String response = mockMvc.perform(get("/api/cards/all/scroll")
+                        .param("size", "1")
+                        .param("sort", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(response).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/cards/all/scroll")
+                        .param("size", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     // --- USER TESTS ---
 
+    @Test
+    @WithMockUser(username = "user")
+    void scrollUserCards_asUser_shouldReturnNextPageByCursor() throws Exception {
+        String response = mockMvc.perform(get("/api/cards/scroll")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String firstMask = objectMapper.readTree(response).get("content").get(0).get("cardMask").asText();
+        String cursor = objectMapper.readTree(response).get("nextCursor").asText();
+
+        String next = mockMvc.perform(get("/api/cards/scroll")
+                        .param("size", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        String secondMask = objectMapper.readTree(next).get("content").get(0).get("cardMask").asText();
+
+        assertEquals(Set.of("**** **** **** 4444", "**** **** **** 8888"), Set.of(firstMask, secondMask));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void scrollUserCards_invalidCursor_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/cards/scroll")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void scrollUserCards_sizeAboveLimit_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/cards/scroll")
+                        .param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void scrollAllCards_sizeAboveLimit_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/cards/all/scroll")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void exportAllCards_ndjson_shouldStreamOneMaskedCardPerLine() throws Exception {
+        String body = mockMvc.perform(get("/api/cards/all/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            assertEquals("user", node.get("owner").asText());
+            assertEquals("USD", node.get("currency").asText());
+            assertTrue(node.get("cardMask").asText().startsWith("**** **** **** "));
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void exportAllCards_csvWithStatusFilter_shouldStreamMatchingRows() throws Exception {
+        card2.setStatus(Card.CardStatus.BLOCKED);
+        cardRepository.save(card2);
+
+        String body = mockMvc.perform(get("/api/cards/all/export")
+                        .param("format", "csv")
+                        .param("status", "BLOCKED"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"cards.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(List.of(
+                "cardMask,owner,expiryMonth,expireYear,status,balance,currency",
+                "**** **** **** 8888,user,12,2028,BLOCKED,500.00,USD"
+        ), body.lines().toList());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void exportAllCards_unknownFormat_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/cards/all/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void exportAllCards_asNonAdmin_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/api/cards/all/export"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void importCards_ndjson_shouldCreateValidRowsAndReportRejectedOnes() throws Exception {
+        // Arrange
+        UUID unknownOwner = UUID.randomUUID();
+        String body = String.join("\n",
+                "{\"ownerUid\":\"" + regularUser.getId() + "\",\"encryptedNumber\":\"enc1\",\"last4\":\"1001\",\"holderName\":\"Bulk Holder\",\"expiryMonth\":1,\"expiryYear\":2030,\"currency\":\"USD\",\"initialBalance\":10.50}",
+                "{\"ownerUid\":\"" + regularUser.getId() + "\",\"encryptedNumber\":\"enc2\",\"last4\":\"12a4\",\"holderName\":\"Bulk Holder\",\"expiryMonth\":1,\"expiryYear\":2030,\"currency\":\"USD\"}",
+                "",
+                "{\"ownerUid\":\"" + unknownOwner + "\",\"encryptedNumber\":\"enc3\",\"last4\":\"1003\",\"holderName\":\"Bulk Holder\",\"expiryMonth\":1,\"expiryYear\":2030,\"currency\":\"USD\"}",
+                "{not json");
+        long cardsBefore = cardRepository.count();
+
+        // Act
+        String report = mockMvc.perform(post("/api/cards/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : report.lines().toList()) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(4, lines.size());
+        assertEquals(2, lines.get(0).get("line").asInt());
+        assertTrue(lines.get(0).get("error").asText().contains("last4"));
+        assertEquals(5, lines.get(1).get("line").asInt());
+        assertEquals(4, lines.get(2).get("line").asInt());
+        assertEquals("User with id " + unknownOwner + " not found", lines.get(2).get("error").asText());
+        JsonNode summary = lines.get(3);
+        assertEquals(4, summary.get("total").asInt());
+        assertEquals(1, summary.get("created").asInt());
+        assertEquals(3, summary.get("rejected").asInt());
+        assertEquals(cardsBefore + 1, cardRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void importCards_csv_shouldMapColumnsByHeader() throws Exception {
+        // Arrange
+        String body = String.join("\n",
+                "currency,ownerUid,encryptedNumber,last4,holderName,expiryMonth,expiryYear,initialBalance",
+                "EUR," + regularUser.getId() + ",enc1,2001,\"Doe, \"\"John\"\"\",6,2031,",
+                "JPY," + regularUser.getId() + ",enc2,2002,Tanaka,6,2031,100.50");
+
+        // Act
+        String report = mockMvc.perform(post("/api/cards/bulk")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        List<String> lines = report.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals(3, objectMapper.readTree(lines.get(0)).get("line").asInt());
+        assertEquals(1, objectMapper.readTree(lines.get(1)).get("created").asInt());
+        Card imported = cardRepository.findAll().stream()
+                .filter(card -> "2001".equals(card.getLast4()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Doe, \"John\"", imported.getHolderName());
+        assertEquals(Money.ZERO, imported.getBalance());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void importCards_tooLongLine_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        String body = "{\"holderName\":\"" + "x".repeat(10_000) + "\"}\r\n";
+        long cardsBefore = cardRepository.count();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/cards/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Line 1 is longer than 4096 characters"));
+        assertEquals(cardsBefore, cardRepository.count());
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void importCards_asNonAdmin_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/cards/bulk")
+                        .contentType("text/csv")
+                        .content("ownerUid"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void changeCardStatuses_byIds_shouldReturnAffectedCount() throws Exception {
+        // Arrange
+        BulkCardStatusRequest request = new BulkCardStatusRequest(
+                List.of(card1.getId(), card2.getId(), card1.getId()), null, Card.CardStatus.BLOCKED);
+
+        // Act & Assert: повторный запрос ничего не меняет — карты уже в целевом статусе
+        mockMvc.perform(patch("/api/cards/bulk/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        mockMvc.perform(patch("/api/cards/bulk/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(0));
+        assertEquals(Card.CardStatus.BLOCKED, cardRepository.findById(card1.getId()).orElseThrow().getStatus());
+        assertEquals(Card.CardStatus.BLOCKED, cardRepository.findById(card2.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deleteCards_byFilter_shouldDeleteMatchingCards() throws Exception {
+        // Arrange
+        card2.setCurrency("EUR");
+        cardRepository.save(card2);
+        BulkCardDeleteRequest request = new BulkCardDeleteRequest(
+                null, new CardFilter(regularUser.getId(), "USD", Card.CardStatus.ACTIVE));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/cards/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        assertFalse(cardRepository.existsById(card1.getId()));
+        assertTrue(cardRepository.existsById(card2.getId()));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void deleteCards_withoutSelection_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/cards/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{}}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(2, cardRepository.count());
+    }
+
     @Test
     @WithMockUser(username = "user")
     void getUserCards_asUser_shouldSucceed() throws Exception {
@@ -202,7 +515,7 @@ public class CardControllerTest {
     void getBalance_asUser_shouldSucceed() throws Exception {
         mockMvc.perform(get("/api/cards/" + card1.getId() + "/balance"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").value(card1.getBalance().doubleValue()));
+                .andExpect(jsonPath("$").value(card1.getBalance().toBigDecimal().doubleValue()));
     }
 
     @Test
@@ -218,6 +531,148 @@ public class CardControllerTest {
                 .transferBetweenOwnCards(card1.getId(), card2.getId(), "100.00");
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    void transferBetweenOwnCards_repeatedIdempotencyKey_shouldApplyOnce() throws Exception {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/cards/transfer")
+                            .header("Idempotency-Key", key)
+                            .param("fromCardId", card1.getId().toString())
+                            .param("toCardId", card2.getId().toString())
+                            .param("amount", "100.00"))
+                    .andExpect(status().isOk());
+        }
+
+        // Assert
+        Mockito.verify(cardTransferService, Mockito.times(1))
+                .transferBetweenOwnCards(card1.getId(), card2.getId(), "100.00");
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void transferBetweenOwnCards_reusedKeyWithDifferentRequest_shouldReturnUnprocessableEntity() throws Exception {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", key)
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "100.00"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", key)
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "200.00"))
+                .andExpect(status().isUnprocessableEntity());
+        Mockito.verify(cardTransferService, Mockito.never())
+                .transferBetweenOwnCards(card1.getId(), card2.getId(), "200.00");
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void transferBetweenOwnCards_failedAttempt_shouldReleaseIdempotencyKey() throws Exception {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        Mockito.doThrow(new IllegalArgumentException("Insufficient funds"))
+                .doNothing()
+                .when(cardTransferService).transferBetweenOwnCards(card1.getId(), card2.getId(), "100.00");
+
+        // Act
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", key)
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "100.00"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", key)
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "100.00"))
+                .andExpect(status().isOk());
+
+        // Assert
+        Mockito.verify(cardTransferService, Mockito.times(2))
+                .transferBetweenOwnCards(card1.getId(), card2.getId(), "100.00");
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void transferBetweenOwnCards_staleInProgressKey_shouldBeReclaimed() throws Exception {
+        // Arrange: Error не снимает занятый ключ — так выглядит упавший посреди операции узел
+        String key = UUID.randomUUID().toString();
+        Mockito.doThrow(new AssertionError("node crashed"))
+                .doNothing()
+                .when(cardTransferService).transferBetweenOwnCards(card1.getId(), card2.getId(), "100.00");
+        assertThrows(Exception.class, () -> mockMvc.perform(post("/api/cards/transfer")
+                .header("Idempotency-Key", key)
+                .param("fromCardId", card1.getId().toString())
+                .param("toCardId", card2.getId().toString())
+                .param("amount", "100.00")));
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", key)
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "100.00"))
+                .andExpect(status().isConflict());
+        IdempotencyRecord stale = idempotencyRecordRepository.findByUserIdAndKey(regularUser.getId(), key).orElseThrow();
+        stale.setCreatedAt(Instant.now().minus(Duration.ofHours(1)));
+        idempotencyRecordRepository.save(stale);
+
+        // Act
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", key)
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "100.00"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertEquals(IdempotencyRecord.Status.COMPLETED,
+                idempotencyRecordRepository.findByUserIdAndKey(regularUser.getId(), key).orElseThrow().getStatus());
+        Mockito.verify(cardTransferService, Mockito.times(2))
+                .transferBetweenOwnCards(card1.getId(), card2.getId(), "100.00");
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void transferBetweenOwnCards_expiredCompletedKey_shouldExecuteAgain() throws Exception {
+        // Arrange: строка ключа истекла, но планировщик ещё не успел её удалить
+        String key = UUID.randomUUID().toString();
+        Instant past = Instant.now().minus(Duration.ofDays(2));
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .userId(regularUser.getId())
+                .key(key)
+                .operation("transfer")
+                .requestHash("0".repeat(64))
+                .status(IdempotencyRecord.Status.COMPLETED)
+                .createdAt(past)
+                .expiresAt(past.plus(Duration.ofDays(1)))
+                .build());
+
+        // Act
+        mockMvc.perform(post("/api/cards/transfer")
+                        .header("Idempotency-Key", key)
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "100.00"))
+                .andExpect(status().isOk());
+
+        // Assert
+        IdempotencyRecord reused = idempotencyRecordRepository.findByUserIdAndKey(regularUser.getId(), key).orElseThrow();
+        assertEquals(IdempotencyRecord.Status.COMPLETED, reused.getStatus());
+        assertTrue(reused.getExpiresAt().isAfter(Instant.now()));
+        Mockito.verify(cardTransferService, Mockito.times(1))
+                .transferBetweenOwnCards(card1.getId(), card2.getId(), "100.00");
+    }
+
     @Test
     @WithMockUser(username = "user")
     void transferBetweenOwnCards_missingAmount_shouldReturnBadRequest() throws Exception {
@@ -239,4 +694,62 @@ public class CardControllerTest {
 
         Mockito.verifyNoInteractions(cardTransferService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "user")
+    void transferBatch_asUser_shouldReturnResultPerItem() throws Exception {
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest(card1.getId(), card2.getId(), "100.00"),
+                new TransferRequest(card2.getId(), card2.getId(), "1.00"));
+        Mockito.when(cardTransferService.transferBatch(transfers)).thenReturn(List.of(
+                TransferResult.applied(0, transfers.get(0)),
+                TransferResult.rejected(1, transfers.get(1), "Cannot transfer to the same card")));
+
+        mockMvc.perform(post("/api/cards/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transfers)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].message").value("Cannot transfer to the same card"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void transferBatch_asNonUser_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/cards/transfer/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+
+        Mockito.verifyNoInteractions(cardTransferService);
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void submitTransfer_asUser_shouldReturnAccepted() throws Exception {
+        AsyncTransferStatus pending = AsyncTransferStatus.pending(UUID.randomUUID());
+        Mockito.when(cardTransferService.submitTransfer(card1.getId(), card2.getId(), "100.00")).thenReturn(pending);
+
+        mockMvc.perform(post("/api/cards/transfer/async")
+                        .param("fromCardId", card1.getId().toString())
+                        .param("toCardId", card2.getId().toString())
+                        .param("amount", "100.00"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.transferId").value(pending.transferId().toString()))
+                .andExpect(jsonPath("$.state").value("PENDING"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    void getTransferStatus_asUser_shouldReturnState() throws Exception {
+        UUID transferId = UUID.randomUUID();
+        Mockito.when(cardTransferService.getTransferStatus(transferId))
+                .thenReturn(new AsyncTransferStatus(transferId, AsyncTransferStatus.State.REJECTED, "Insufficient funds"));
+
+        mockMvc.perform(get("/api/cards/transfer/async/" + transferId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("REJECTED"))
+                .andExpect(jsonPath("$.message").value("Insufficient funds"));
+    }
+}
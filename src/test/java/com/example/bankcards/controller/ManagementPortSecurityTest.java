@@ -0,0 +1,54 @@
+package com.example.bankcards.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Actuator на отдельном порту: скрейп доступен без токена только там, на порту приложения actuator не обслуживается.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ManagementPortSecurityTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    @DisplayName("Prometheus scrape should be public on the management port and unavailable on the application port")
+    void prometheus_shouldBePublicOnlyOnManagementPort() throws Exception {
+        // Act
+        HttpResponse<String> management = get(managementPort, "/actuator/prometheus");
+        HttpResponse<String> application = get(serverPort, "/actuator/prometheus");
+        HttpResponse<String> metrics = get(managementPort, "/actuator/metrics");
+
+        // Assert
+        assertEquals(200, management.statusCode());
+        assertTrue(management.body().contains("jvm_memory_used_bytes"));
+        assertEquals(401, application.statusCode());
+        assertEquals(401, metrics.statusCode());
+    }
+
+    private HttpResponse<String> get(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
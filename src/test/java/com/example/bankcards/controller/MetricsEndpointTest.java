@@ -0,0 +1,103 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.dto.JwtResponse;
+import com.example.bankcards.dto.LoginRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @BeforeEach
+    void setUp() {
+        testFixtures.clear();
+        testFixtures.user("admin", "password", "ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("Prometheus scrape on the shared port should require an admin and expose the auth, card, error and pool metrics")
+    void prometheus_shouldExposeHotPathMetrics() throws Exception {
+        // Arrange
+        String token = login("password");
+        mockMvc.perform(get("/api/cards/all").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("admin", "wrong"))))
+                .andExpect(status().isUnauthorized());
+
+        // Act
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // Assert
+        for (String metric : List.of(
+                "auth_login_seconds_bucket",
+                "auth_password_seconds_count{application=\"card-service\",operation=\"matches\"}",
+                "auth_jwt_filter_seconds_count{application=\"card-service\",phase=\"verify\"}",
+                "auth_jwt_filter_seconds_count{application=\"card-service\",phase=\"claims\"}",
+                "auth_jwt_filter_seconds_count{application=\"card-service\",phase=\"user_load\"}",
+                "card_service_seconds_count{application=\"card-service\",class=\"com.example.bankcards.service.CardServiceImpl\"",
+                "api_errors_total{application=\"card-service\",exception=\"BadCredentialsException\",status=\"401\"}",
+                "spring_data_repository_invocations_seconds_count",
+                "hikaricp_connections_active")) {
+            assertTrue(scrape.contains(metric), () -> "Missing " + metric);
+        }
+    }
+
+    @Test
+    @DisplayName("Only health should be public when actuator shares the application port")
+    void actuator_shouldKeepOnlyHealthPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String login(String password) throws Exception {
+        String response = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest("admin", password))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(response, JwtResponse.class).token();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("parse should read integer and fractional amounts into minor units")
+    void parse_shouldReturnMinorUnits() {
+        assertEquals(10000, Money.parse("100").minorUnits());
+        assertEquals(10050, Money.parse("100.5").minorUnits());
+        assertEquals(10055, Money.parse("100.55").minorUnits());
+        assertEquals(10055, Money.parse("100.5500").minorUnits());
+        assertEquals(5, Money.parse(".05").minorUnits());
+        assertEquals(-150, Money.parse("-1.50").minorUnits());
+        assertEquals(Long.MAX_VALUE, Money.parse("92233720368547758.07").minorUnits());
+        assertEquals(Long.MIN_VALUE, Money.parse("-92233720368547758.08").minorUnits());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", ".", "abc", "1.2.3", "1,00", "1e5", " 1", "100.555", "92233720368547758.08"})
+    @DisplayName("parse should reject malformed, too precise and out-of-range amounts")
+    void parse_shouldRejectInvalidAmounts(String amount) {
+        assertThrows(NumberFormatException.class, () -> Money.parse(amount));
+    }
+
+    @Test
+    @DisplayName("parse with currency should respect the currency's minor unit")
+    void parse_shouldRespectCurrencyFractionDigits() {
+        assertEquals(10000, Money.parse("100", "JPY").minorUnits());
+        assertThrows(NumberFormatException.class, () -> Money.parse("100.50", "JPY"));
+        assertEquals(10050, Money.parse("100.50", "USD").minorUnits());
+        assertTrue(Money.parse("100.00").fitsCurrency("JPY"));
+        assertFalse(Money.parse("100.50").fitsCurrency("JPY"));
+    }
+
+    @Test
+    @DisplayName("arithmetic should fail instead of wrapping around on overflow")
+    void arithmetic_shouldDetectOverflow() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertEquals(Money.parse("150.25"), Money.parse("100.25").plus(Money.parse("50")));
+        assertEquals(Money.parse("-50.25"), Money.parse("50").minus(Money.parse("100.25")));
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    @DisplayName("BigDecimal conversion should round-trip through the DECIMAL(19,2) representation")
+    void bigDecimalConversion_shouldRoundTrip() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("1000.50"), converter.convertToDatabaseColumn(Money.parse("1000.5")));
+        assertEquals(Money.parse("1000.50"), converter.convertToEntityAttribute(new BigDecimal("1000.5")));
+        assertEquals(Money.ZERO, Money.of(BigDecimal.ZERO));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 50_000;
+
+    @Test
+    @DisplayName("next should produce version 7 UUIDs with the RFC 4122 variant and the current time")
+    void next_shouldProduceVersion7() {
+        long before = System.currentTimeMillis();
+
+        UUID id = UuidV7Generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis() + 1, "Unexpected timestamp " + timestamp);
+    }
+
+    @Test
+    @DisplayName("next should be unique across threads and strictly increasing within each thread")
+    void next_shouldBeMonotonicAndUnique_underConcurrency() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>(PER_THREAD);
+                for (int i = 0; i < PER_THREAD; i++) {
+                    ids.add(UuidV7Generator.next());
+                }
+                return ids;
+            }));
+        }
+
+        Set<UUID> all = new HashSet<>();
+        for (Future<List<UUID>> future : futures) {
+            List<UUID> ids = future.get();
+            for (int i = 1; i < ids.size(); i++) {
+                // Порядок как в PostgreSQL: беззнаковое сравнение старших бит (младшие случайны)
+                assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(),
+                        ids.get(i).getMostSignificantBits()) < 0, "Not monotonic at " + i);
+            }
+            all.addAll(ids);
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS * PER_THREAD, all.size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.TestFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link LoadTestHarness} против приложения в этом же процессе на H2: не нужны ни запущенный сервер, ни Postgres.
+ * Параметры — те же {@code loadtest.*}, например {@code mvn test -Pbenchmark -Dtest=EndToEndLoadBenchmarkTest -Dloadtest.rate=500}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class EndToEndLoadBenchmarkTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void load() throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties().withBaseUrl("http://localhost:" + port);
+        testFixtures.clear();
+        testFixtures.user(config.user().username(), config.user().password(), "ROLE_USER");
+        testFixtures.user(config.admin().username(), config.admin().password(), "ROLE_ADMIN");
+
+        LoadReport report = LoadTestHarness.run(config, jdbcTemplate, objectMapper);
+
+        log.info("rate={} req/s warmup={} duration={} mix={}{}",
+                config.rate(), config.warmup(), config.duration(), config.mix(), report.summary());
+        List<String> violations = report.violations(config);
+        assertTrue(violations.isEmpty(), () -> "Load test failed: " + violations);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки открытой модели: запрос {@code i} планируется на {@code start + i / rate} независимо от того,
+ * ответил ли сервер на предыдущие, и отправляется отдельным виртуальным потоком. Так медленный сервер получает
+ * ту же частоту поступления, что и быстрый, а задержка в очереди попадает во время ответа.
+ */
+final class LoadGenerator {
+
+    private static final String CREATED_HOLDER_NAME = "LOAD TEST CREATED";
+
+    private final LoadTestConfig config;
+    private final HttpClient httpClient;
+    private final LoadTarget target;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadGenerator(LoadTestConfig config, HttpClient httpClient, LoadTarget target, ObjectMapper objectMapper) {
+        this.config = config;
+        this.httpClient = httpClient;
+        this.target = target;
+        this.objectMapper = objectMapper;
+        this.operations = config.mix().keySet().stream().sorted().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += config.mix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    /**
+     * Выполняет прогрев и измерение; запросы, запланированные на прогрев, в отчёт не попадают.
+     */
+    LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport();
+        SplittableRandom random = new SplittableRandom(config.seed());
+        AtomicInteger inFlight = new AtomicInteger();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+
+        long start = System.nanoTime();
+        long measureStart = start + config.warmup().toNanos();
+        long end = measureStart + config.duration().toNanos();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) {
+                    break;
+                }
+                sleepUntil(intended);
+
+                Operation operation = nextOperation(random);
+                HttpRequest request = request(operation, random, i);
+                boolean measured = intended >= measureStart;
+                if (inFlight.incrementAndGet() > config.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        report.dropped(operation);
+                    }
+                    continue;
+                }
+                senders.execute(() -> {
+                    try {
+                        send(report, operation, request, intended, measured);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        report.finish((end - measureStart) / 1e9);
+        return report;
+    }
+
+    private void send(LoadReport report, Operation operation, HttpRequest request, long intended, boolean measured) {
+        long sent = System.nanoTime();
+        boolean error;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            error = response.statusCode() >= 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = true;
+        } catch (Exception e) {
+            error = true;
+        }
+        long completed = System.nanoTime();
+        if (measured) {
+            report.record(operation, completed - intended, completed - sent, error);
+        }
+    }
+
+    private Operation nextOperation(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random, long i) {
+        List<UUID> cards = target.cardIds();
+        return switch (operation) {
+            case GET_USER_CARDS -> user("/api/cards?page=0&size=10").GET().build();
+            case GET_BALANCE -> user("/api/cards/" + pick(cards, random) + "/balance").GET().build();
+            case TRANSFER -> {
+                int from = random.nextInt(cards.size());
+                int to = (from + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+                yield user("/api/cards/transfer?fromCardId=" + cards.get(from) + "&toCardId=" + cards.get(to) + "&amount=0.01")
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            case CREATE_CARD -> admin("/api/cards")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(new CreateCardRequest(target.ownerId(),
+                            "loadtest-" + UUID.randomUUID(), String.format("%04d", i % 10_000), CREATED_HOLDER_NAME,
+                            12, 2030, "USD", BigDecimal.ZERO))))
+                    .build();
+            case CHANGE_CARD_STATUS -> admin("/api/cards/status?cardId=" + pick(target.statusCardIds(), random)
+                    + "&status=" + (i % 2 == 0 ? Card.CardStatus.BLOCKED : Card.CardStatus.ACTIVE))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+    }
+
+    private HttpRequest.Builder user(String path) {
+        return HttpRequest.newBuilder(target.uri(path)).header("Authorization", "Bearer " + target.userToken());
+    }
+
+    private HttpRequest.Builder admin(String path) {
+        return HttpRequest.newBuilder(target.uri(path)).header("Authorization", "Bearer " + target.adminToken());
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UUID pick(List<UUID> ids, SplittableRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.bankcards.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Однопоточный сервер: каждый запрос обслуживается 20 мс, поэтому при 100 req/s очередь растёт
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = exchange.getRequestURI().getPath().endsWith("/balance") ? 500 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Requests should keep the fixed arrival rate and queueing delay should count towards response time")
+    void run_shouldMeasureFromIntendedStartTime() throws Exception {
+        // Arrange
+        LoadTestConfig config = config(Map.of(Operation.GET_USER_CARDS, 1), 100, Duration.ofSeconds(1));
+
+        // Act
+        LoadReport report = generator(config).run();
+
+        // Assert
+        assertEquals(100, report.requests(Operation.GET_USER_CARDS));
+        assertEquals(100, requests.get());
+        long p99Millis = report.responseTime(Operation.GET_USER_CARDS).getValueAtPercentile(99) / 1000;
+        assertTrue(p99Millis >= 500, () -> "Queueing delay missing from response time, p99=" + p99Millis + "ms");
+        assertEquals(0, report.errorRate(Operation.GET_USER_CARDS));
+    }
+
+    @Test
+    @DisplayName("Error responses should be counted per operation and reported as violations above the threshold")
+    void run_shouldCountErrorsPerOperation() throws Exception {
+        // Arrange
+        LoadTestConfig config = config(Map.of(Operation.GET_USER_CARDS, 1, Operation.GET_BALANCE, 1), 20, Duration.ofSeconds(1));
+
+        // Act
+        LoadReport report = generator(config).run();
+
+        // Assert
+        assertEquals(20, report.requests(Operation.GET_USER_CARDS) + report.requests(Operation.GET_BALANCE));
+        assertEquals(0, report.errors(Operation.GET_USER_CARDS));
+        assertEquals(report.requests(Operation.GET_BALANCE), report.errors(Operation.GET_BALANCE));
+        assertEquals(List.of("getBalance error rate 100.00% > 1.00%"), report.violations(config));
+    }
+
+    @Test
+    @DisplayName("Mix should be parsed by operation id and reject unknown operations")
+    void parseMix_shouldMapOperationIds() {
+        // Act & Assert
+        assertEquals(Map.of(Operation.TRANSFER, 3, Operation.CREATE_CARD, 1),
+                LoadTestConfig.parseMix("transfer=3, createCard=1, getBalance=0"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestConfig.parseMix("withdraw=1"));
+    }
+
+    private LoadGenerator generator(LoadTestConfig config) {
+        LoadTarget target = new LoadTarget(URI.create("http://localhost:" + server.getAddress().getPort()), "user", "admin",
+                UUID.randomUUID(), List.of(UUID.randomUUID(), UUID.randomUUID()), List.of(UUID.randomUUID()));
+        return new LoadGenerator(config, HttpClient.newHttpClient(), target, new ObjectMapper());
+    }
+
+    private static LoadTestConfig config(Map<Operation, Integer> mix, double rate, Duration duration) {
+        return new LoadTestConfig("http://localhost", rate, Duration.ZERO, duration, mix, 2, 1, 1_000, 42,
+                new LoadTestConfig.Credentials("user", "password"), new LoadTestConfig.Credentials("admin", "password"),
+                0.01, null, Path.of("target", "loadtest"));
+    }
+}
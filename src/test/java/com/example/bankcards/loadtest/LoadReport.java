@@ -0,0 +1,176 @@
+package com.example.bankcards.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Результаты прогона по операциям в микросекундах. Время ответа считается от запланированного момента отправки,
+ * поэтому включает ожидание в очереди генератора и не занижается при замедлении сервера (coordinated omission);
+ * время обслуживания — от фактической отправки, для сравнения.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private volatile double seconds;
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    void record(Operation operation, long responseNanos, long serviceNanos, boolean error) {
+        Stats s = stats.get(operation);
+        s.responseTime.recordValue(toMicros(responseNanos));
+        s.serviceTime.recordValue(toMicros(serviceNanos));
+        if (error) {
+            s.errors.increment();
+        }
+    }
+
+    void dropped(Operation operation) {
+        stats.get(operation).dropped.increment();
+    }
+
+    void finish(double measuredSeconds) {
+        this.seconds = measuredSeconds;
+    }
+
+    Histogram responseTime(Operation operation) {
+        return stats.get(operation).responseTime;
+    }
+
+    long requests(Operation operation) {
+        Stats s = stats.get(operation);
+        return s.responseTime.getTotalCount() + s.dropped.sum();
+    }
+
+    long errors(Operation operation) {
+        Stats s = stats.get(operation);
+        return s.errors.sum() + s.dropped.sum();
+    }
+
+    double errorRate(Operation operation) {
+        long requests = requests(operation);
+        return requests == 0 ? 0 : (double) errors(operation) / requests;
+    }
+
+    List<String> violations(LoadTestConfig config) {
+        List<String> violations = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            if (requests(operation) == 0) {
+                continue;
+            }
+            if (errorRate(operation) > config.maxErrorRate()) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%",
+                        operation.id(), errorRate(operation) * 100, config.maxErrorRate() * 100));
+            }
+            Duration p99 = Duration.ofNanos(responseTime(operation).getValueAtPercentile(99) * 1000);
+            if (config.maxP99() != null && p99.compareTo(config.maxP99()) > 0) {
+                violations.add(String.format("%s p99 %d ms > %d ms", operation.id(), p99.toMillis(), config.maxP99().toMillis()));
+            }
+        }
+        return violations;
+    }
+
+    String summary() {
+        StringBuilder out = new StringBuilder(String.format("%n%-17s %8s %8s %8s %7s %9s %9s %9s %9s %9s %13s%n",
+                "operation", "requests", "errors", "dropped", "error%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms"));
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            long requests = requests(operation);
+            if (requests == 0) {
+                continue;
+            }
+            total += requests;
+            Histogram response = responseTime(operation);
+            out.append(String.format("%-17s %8d %8d %8d %7.2f %9.2f %9.2f %9.2f %9.2f %9.2f %13.2f%n",
+                    operation.id(), requests, errors(operation), stats.get(operation).dropped.sum(), errorRate(operation) * 100,
+                    millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                    response.getMaxValue() / MICROS_PER_MILLI, millis(stats.get(operation).serviceTime, 99)));
+        }
+        out.append(String.format("total %d requests in %.1f s, %.1f req/s", total, seconds, throughput()));
+        return out.toString();
+    }
+
+    double throughput() {
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            total += requests(operation);
+        }
+        return seconds > 0 ? total / seconds : 0;
+    }
+
+    /**
+     * Сравнение прогонов в одной таблице: для каждой операции перцентили времени ответа и доля ошибок прогонов рядом.
+     */
+    static String sideBySide(Map<String, LoadReport> reports) {
+        StringBuilder out = new StringBuilder(String.format("%-17s", "operation"));
+        reports.keySet().forEach(name -> out.append(String.format(" | %16s %16s %16s %16s",
+                name + " p50 ms", name + " p99 ms", name + " p99.9 ms", name + " error%")));
+        out.append(System.lineSeparator());
+        for (Operation operation : Operation.values()) {
+            if (reports.values().stream().allMatch(report -> report.requests(operation) == 0)) {
+                continue;
+            }
+            out.append(String.format("%-17s", operation.id()));
+            reports.values().forEach(report -> {
+                Histogram response = report.responseTime(operation);
+                out.append(String.format(" | %16.2f %16.2f %16.2f %16.2f", millis(response, 50), millis(response, 99),
+                        millis(response, 99.9), report.errorRate(operation) * 100));
+            });
+            out.append(System.lineSeparator());
+        }
+        out.append(String.format("%-17s", "req/s"));
+        reports.values().forEach(report -> out.append(String.format(" | %16.1f %50s", report.throughput(), "")));
+        return out.toString().stripTrailing() + System.lineSeparator();
+    }
+
+    /**
+     * Пишет сводку ({@code summary.txt}) и полное распределение времени ответа каждой операции в формате HdrHistogram
+     * ({@code <operation>.hgrm}, в мс), его можно открыть в HdrHistogram Plotter или сравнить между релизами.
+     */
+    void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("summary.txt"), summary().strip() + System.lineSeparator());
+        for (Operation operation : Operation.values()) {
+            if (responseTime(operation).getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(operation.id() + ".hgrm")))) {
+                responseTime(operation).outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(nanos / 1000, 1), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private static final class Stats {
+
+        private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.loadtest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Подготовленные для прогона токены и карты. Переводы и балансы идут по {@code cardIds},
+ * смена статуса — только по {@code statusCardIds}, чтобы блокировка не ломала переводы.
+ */
+record LoadTarget(URI baseUri,
+                  String userToken,
+                  String adminToken,
+                  UUID ownerId,
+                  List<UUID> cardIds,
+                  List<UUID> statusCardIds) {
+
+    LoadTarget {
+        cardIds = List.copyOf(cardIds);
+        statusCardIds = List.copyOf(statusCardIds);
+    }
+
+    URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+}
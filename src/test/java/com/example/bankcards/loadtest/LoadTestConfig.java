@@ -0,0 +1,108 @@
+package com.example.bankcards.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного прогона из системных свойств {@code loadtest.*}.
+ *
+ * @param rate        целевая частота поступления запросов в секунду, не зависит от времени ответа
+ * @param mix         веса операций, например {@code getUserCards=40,getBalance=30,transfer=20,createCard=5,changeCardStatus=5}
+ * @param maxInFlight сколько запросов может ожидать ответа одновременно; сверх этого запрос не отправляется и считается ошибкой
+ * @param maxP99      допустимый p99 времени ответа любой операции, {@code null} — без ограничения
+ */
+record LoadTestConfig(String baseUrl,
+                      double rate,
+                      Duration warmup,
+                      Duration duration,
+                      Map<Operation, Integer> mix,
+                      int cards,
+                      int statusCards,
+                      int maxInFlight,
+                      long seed,
+                      Credentials user,
+                      Credentials admin,
+                      double maxErrorRate,
+                      Duration maxP99,
+                      Path reportDir) {
+
+    static final String DEFAULT_MIX = "getUserCards=40,getBalance=30,transfer=20,createCard=5,changeCardStatus=5";
+
+    record Credentials(String username, String password) {
+    }
+
+    LoadTestConfig {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("loadtest.rate must be positive");
+        }
+        if (cards < 2 || statusCards < 1) {
+            throw new IllegalArgumentException("loadtest.cards must be at least 2 and loadtest.status-cards at least 1");
+        }
+        mix = Map.copyOf(mix);
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return fromSystemProperties(DEFAULT_MIX);
+    }
+
+    static LoadTestConfig fromSystemProperties(String defaultMix) {
+        String maxP99 = System.getProperty("loadtest.max-p99");
+        return new LoadTestConfig(
+                System.getProperty("loadtest.base-url", "http://localhost:8080"),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")),
+                parseMix(System.getProperty("loadtest.mix", defaultMix)),
+                Integer.getInteger("loadtest.cards", 16),
+                Integer.getInteger("loadtest.status-cards", 4),
+                Integer.getInteger("loadtest.max-in-flight", 2_000),
+                Long.getLong("loadtest.seed", 42),
+                new Credentials(System.getProperty("loadtest.user.username", "loadtest"),
+                        System.getProperty("loadtest.user.password", "loadtest")),
+                new Credentials(System.getProperty("loadtest.admin.username", "admin"),
+                        System.getProperty("loadtest.admin.password", "admin")),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+                maxP99 != null ? DurationStyle.detectAndParse(maxP99) : null,
+                Path.of(System.getProperty("loadtest.report-dir", "target/loadtest")));
+    }
+
+    LoadTestConfig withBaseUrl(String baseUrl) {
+        return new LoadTestConfig(baseUrl, rate, warmup, duration, mix, cards, statusCards, maxInFlight, seed,
+                user, admin, maxErrorRate, maxP99, reportDir);
+    }
+
+    LoadTestConfig withAccounts(Credentials user, Credentials admin) {
+        return new LoadTestConfig(baseUrl, rate, warmup, duration, mix, cards, statusCards, maxInFlight, seed,
+                user, admin, maxErrorRate, maxP99, reportDir);
+    }
+
+    LoadTestConfig withReportDir(Path reportDir) {
+        return new LoadTestConfig(baseUrl, rate, warmup, duration, mix, cards, statusCards, maxInFlight, seed,
+                user, admin, maxErrorRate, maxP99, reportDir);
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in loadtest.mix: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(Operation.of(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must give a positive weight to at least one operation");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.dto.CreateCardRequest;
+import com.example.bankcards.dto.JwtResponse;
+import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Сквозной нагрузочный прогон против запущенного приложения (см. README, раздел 9).
+ * <p>
+ * Логинится через {@code /auth/login} пользователем и администратором, заводит через API карты пользователя для прогона
+ * и берёт их id из БД приложения: API не возвращает id карт. Пользователь с ролью USER и администратор должны
+ * существовать заранее. Отчёт — в stdout и {@code loadtest.report-dir}; код выхода 1, если нарушены
+ * {@code loadtest.max-error-rate} или {@code loadtest.max-p99}.
+ */
+public final class LoadTestHarness {
+
+    private static final String CARD_HOLDER_NAME = "LOAD TEST ";
+    private static final BigDecimal CARD_BALANCE = new BigDecimal("1000000000.00");
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("loadtest.jdbc.url", "jdbc:postgresql://localhost:5432/bankcards_db"),
+                System.getProperty("loadtest.jdbc.username", "postgres"),
+                System.getProperty("loadtest.jdbc.password", "postgres"));
+
+        LoadReport report = run(config, new JdbcTemplate(dataSource), new ObjectMapper());
+        System.out.println(report.summary());
+        List<String> violations = report.violations(config);
+        violations.forEach(violation -> System.out.println("FAILED: " + violation));
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    static LoadReport run(LoadTestConfig config, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) throws Exception {
+        // Отправители на виртуальных потоках, чтобы ограничением был сервер, а не генератор нагрузки
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        LoadTarget target = prepare(config, httpClient, jdbcTemplate, objectMapper);
+        LoadReport report = new LoadGenerator(config, httpClient, target, objectMapper).run();
+        report.write(config.reportDir());
+        return report;
+    }
+
+    private static LoadTarget prepare(LoadTestConfig config, HttpClient httpClient, JdbcTemplate jdbcTemplate,
+                                      ObjectMapper objectMapper) throws IOException, InterruptedException {
+        URI baseUri = URI.create(config.baseUrl());
+        String userToken = login(httpClient, baseUri, config.user(), objectMapper);
+        String adminToken = login(httpClient, baseUri, config.admin(), objectMapper);
+        UUID ownerId = UUID.fromString(objectMapper.readTree(Base64.getUrlDecoder().decode(userToken.split("\\.")[1]))
+                .get(JwtTokenProvider.CLAIM_USER_ID).asText());
+
+        // Свои карты на каждый прогон: переводы прошлых прогонов и смена статуса не влияют на этот
+        String holderName = CARD_HOLDER_NAME + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        int total = config.cards() + config.statusCards();
+        for (int i = 0; i < total; i++) {
+            CreateCardRequest request = new CreateCardRequest(ownerId, "loadtest-" + UUID.randomUUID(),
+                    String.format("%04d", i), holderName, 12, 2030, "USD", CARD_BALANCE);
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/api/cards"))
+                            .header("Authorization", "Bearer " + adminToken)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Card creation failed: " + response.statusCode() + " " + response.body());
+            }
+        }
+        List<UUID> cardIds = jdbcTemplate.queryForList(
+                "select id from card where owner_id = ? and holder_name = ? order by last4", UUID.class, ownerId, holderName);
+        if (cardIds.size() != total) {
+            throw new IllegalStateException("Expected " + total + " load test cards in the database, found " + cardIds.size()
+                    + "; does loadtest.jdbc.url point to the application database?");
+        }
+        return new LoadTarget(baseUri, userToken, adminToken, ownerId,
+                cardIds.subList(0, config.cards()), cardIds.subList(config.cards(), total));
+    }
+
+    private static String login(HttpClient httpClient, URI baseUri, LoadTestConfig.Credentials credentials,
+                                ObjectMapper objectMapper) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                new LoginRequest(credentials.username(), credentials.password()))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + credentials.username() + " failed: " + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), JwtResponse.class).token();
+    }
+}
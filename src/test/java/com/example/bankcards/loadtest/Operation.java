@@ -0,0 +1,31 @@
+package com.example.bankcards.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Операции нагрузочного прогона; {@link #id()} используется в {@code loadtest.mix} и в отчёте.
+ */
+enum Operation {
+    GET_USER_CARDS("getUserCards"),
+    GET_BALANCE("getBalance"),
+    TRANSFER("transfer"),
+    CREATE_CARD("createCard"),
+    CHANGE_CARD_STATUS("changeCardStatus");
+
+    private final String id;
+
+    Operation(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    static Operation of(String id) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.id.equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load test operation: " + id));
+    }
+}
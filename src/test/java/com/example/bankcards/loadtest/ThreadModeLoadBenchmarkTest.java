@@ -0,0 +1,125 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.CardServiceApplication;
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Платформенные и виртуальные потоки Tomcat под одинаковой открытой нагрузкой {@link LoadGenerator} на
+ * {@code GET /api/cards} и {@code POST /api/cards/transfer}. Приложение по очереди поднимается в этом процессе в каждом
+ * режиме против одной PostgreSQL ({@code loadtest.jdbc.url}, по умолчанию БД из docker-compose); без неё тест пропускается.
+ * Сравнение режимов пишется в {@code target/loadtest/thread-modes.txt}, распределения — в {@code target/loadtest/<режим>/}.
+ * Параметры нагрузки — те же {@code loadtest.*}: {@code mvn test -Pbenchmark -Dtest=ThreadModeLoadBenchmarkTest -Dloadtest.rate=300}.
+ */
+@Slf4j
+@Tag("benchmark")
+class ThreadModeLoadBenchmarkTest {
+
+    private static final String MIX = "getUserCards=50,transfer=50";
+    private static final String USERNAME = "threadmode-user";
+    private static final String ADMIN_USERNAME = "threadmode-admin";
+
+    @Test
+    void compareThreadModes() throws Exception {
+        String url = System.getProperty("loadtest.jdbc.url", "jdbc:postgresql://localhost:5432/bankcards_db");
+        String username = System.getProperty("loadtest.jdbc.username", "postgres");
+        String password = System.getProperty("loadtest.jdbc.password", "postgres");
+        assumeTrue(reachable(url, username, password), () -> "No database at " + url);
+
+        // Свои учётные записи с новым паролем на каждый прогон: общую БД не нужно готовить заранее
+        String accountPassword = UUID.randomUUID().toString();
+        LoadTestConfig base = LoadTestConfig.fromSystemProperties(MIX).withAccounts(
+                new LoadTestConfig.Credentials(USERNAME, accountPassword),
+                new LoadTestConfig.Credentials(ADMIN_USERNAME, accountPassword));
+
+        Map<String, LoadReport> reports = new LinkedHashMap<>();
+        List<String> violations = new ArrayList<>();
+        StringBuilder pinning = new StringBuilder();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            String mode = virtualThreads ? "virtual" : "platform";
+            try (ConfigurableApplicationContext app = start(virtualThreads, url, username, password)) {
+                saveAccounts(app, base);
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                LoadTestConfig config = base.withBaseUrl("http://localhost:" + port).withReportDir(base.reportDir().resolve(mode));
+
+                LoadReport report = LoadTestHarness.run(config, app.getBean(JdbcTemplate.class), app.getBean(ObjectMapper.class));
+
+                reports.put(mode, report);
+                report.violations(config).forEach(violation -> violations.add(mode + ": " + violation));
+                Timer pinned = app.getBean(MeterRegistry.class).find("jvm.threads.virtual.pinned").timer();
+                pinning.append(String.format("%s: %d pinned virtual threads%n", mode, pinned != null ? pinned.count() : 0));
+            }
+        }
+
+        String comparison = String.format("rate=%s req/s warmup=%s duration=%s mix=%s%n%s%s",
+                base.rate(), base.warmup(), base.duration(), base.mix(), LoadReport.sideBySide(reports), pinning);
+        Files.createDirectories(base.reportDir());
+        Files.writeString(base.reportDir().resolve("thread-modes.txt"), comparison);
+        log.info("Thread mode comparison:{}{}", System.lineSeparator(), comparison);
+        assertTrue(violations.isEmpty(), () -> "Load test failed: " + violations);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, String url, String username, String password) {
+        // Аргументы командной строки, а не properties(): те ниже application.yaml по приоритету
+        return new SpringApplicationBuilder(CardServiceApplication.class, TestFixtures.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--spring.datasource.driver-class-name=" + DatabaseDriver.fromJdbcUrl(url).getDriverClassName(),
+                "--spring.docker.compose.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+    }
+
+    private static void saveAccounts(ConfigurableApplicationContext app, LoadTestConfig config) {
+        saveAccount(app, config.user(), "ROLE_USER");
+        saveAccount(app, config.admin(), "ROLE_ADMIN");
+    }
+
+    // Учётная запись прошлого прогона остаётся в общей БД: у неё только меняется пароль
+    private static void saveAccount(ConfigurableApplicationContext app, LoadTestConfig.Credentials account, String roleName) {
+        UserRepository userRepository = app.getBean(UserRepository.class);
+        userRepository.findByUsername(account.username()).ifPresentOrElse(
+                user -> {
+                    user.setPassword(app.getBean(PasswordEncoder.class).encode(account.password()));
+                    userRepository.save(user);
+                },
+                () -> app.getBean(TestFixtures.class).user(account.username(), account.password(), roleName));
+    }
+
+    private static boolean reachable(String url, String username, String password) {
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            return connection.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.bankcards.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test_secret_key_which_is_at_least_32_chars_long";
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 60, 100);
+    }
+
+    @Test
+    @DisplayName("extractVerifiedClaims should return subject and extra claims for a valid token")
+    void extractVerifiedClaims_shouldReturnClaims_forValidToken() {
+        String token = jwtTokenProvider.generateToken("testuser", Map.of("foo", "bar"));
+
+        Claims claims = jwtTokenProvider.extractVerifiedClaims(token);
+
+        assertNotNull(claims);
+        assertEquals("testuser", claims.getSubject());
+        assertEquals("bar", claims.get("foo", String.class));
+    }
+
+    @Test
+    @DisplayName("extractVerifiedClaims should reuse the verified claims for a repeated token")
+    void extractVerifiedClaims_shouldReturnCachedClaims_forRepeatedToken() {
+        String token = jwtTokenProvider.generateToken("testuser");
+
+        Claims first = jwtTokenProvider.extractVerifiedClaims(token);
+        Claims second = jwtTokenProvider.extractVerifiedClaims(token);
+
+        assertSame(first, second);
+        assertEquals("testuser", jwtTokenProvider.extractSubject(token));
+        assertTrue(jwtTokenProvider.isTokenValid(token));
+    }
+
+    @Test
+    @DisplayName("extractVerifiedClaims should return null for a token signed with another key")
+    void extractVerifiedClaims_shouldReturnNull_forForeignSignature() {
+        JwtTokenProvider otherProvider = new JwtTokenProvider("another_secret_key_which_is_at_least_32_chars", 60, 100);
+        String token = otherProvider.generateToken("testuser");
+
+        assertNull(jwtTokenProvider.extractVerifiedClaims(token));
+        assertFalse(jwtTokenProvider.isTokenValid(token));
+    }
+
+    @Test
+    @DisplayName("extractVerifiedClaims should return null for an expired token")
+    void extractVerifiedClaims_shouldReturnNull_forExpiredToken() {
+        Instant past = Instant.now().minus(2, ChronoUnit.HOURS);
+        String token = Jwts.builder()
+                .subject("testuser")
+                .issuedAt(Date.from(past))
+                .expiration(Date.from(past.plus(1, ChronoUnit.HOURS)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertNull(jwtTokenProvider.extractVerifiedClaims(token));
+        assertNull(jwtTokenProvider.extractSubject(token));
+    }
+
+    @Test
+    @DisplayName("extractVerifiedClaims should return null for malformed or empty tokens")
+    void extractVerifiedClaims_shouldReturnNull_forMalformedToken() {
+        assertNull(jwtTokenProvider.extractVerifiedClaims("not-a-jwt"));
+        assertNull(jwtTokenProvider.extractVerifiedClaims(""));
+        assertNull(jwtTokenProvider.extractVerifiedClaims(null));
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.bankcards.service;
 
-import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,22 +29,21 @@ class AdminServiceImplTest {
     @InjectMocks
     private AdminServiceImpl adminService;
 
-    private User testUser;
+    private UUID testUserId;
 
     @BeforeEach
     void setUp() {
-        testUser = new User();
-        testUser.setUsername("testuser");
+        testUserId = UUID.randomUUID();
+    }
+
+    private AuthenticatedUser identityWithRoles(Set<String> roles) {
+        return new AuthenticatedUser(testUserId, "testuser", User.UserStatus.ACTIVE, roles);
     }
 
     @Test
     @DisplayName("requireAdmin should not throw exception when user is an admin")
     void requireAdmin_shouldNotThrowException_whenUserIsAdmin() {
-        Role adminRole = new Role();
-        adminRole.setName("ROLE_ADMIN");
-        testUser.setRoles(Set.of(adminRole));
-
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentIdentity()).thenReturn(identityWithRoles(Set.of("ROLE_ADMIN")));
 
         assertDoesNotThrow(() -> adminService.requireAdmin(), "Should not throw AccessDeniedException for an admin user.");
     }
@@ -52,11 +51,7 @@ class AdminServiceImplTest {
     @Test
     @DisplayName("requireAdmin should throw AccessDeniedException when user is not an admin")
     void requireAdmin_shouldThrowAccessDeniedException_whenUserIsNotAdmin() {
-        Role userRole = new Role();
-        userRole.setName("ROLE_USER");
-        testUser.setRoles(Set.of(userRole));
-
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentIdentity()).thenReturn(identityWithRoles(Set.of("ROLE_USER")));
 
         AccessDeniedException exception = assertThrows(AccessDeniedException.class, () -> {
             adminService.requireAdmin();
@@ -68,9 +63,7 @@ class AdminServiceImplTest {
     @Test
     @DisplayName("requireAdmin should throw AccessDeniedException when user has no roles")
     void requireAdmin_shouldThrowAccessDeniedException_whenUserHasNoRoles() {
-        testUser.setRoles(Collections.emptySet());
-
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentIdentity()).thenReturn(identityWithRoles(Collections.emptySet()));
 
         AccessDeniedException exception = assertThrows(AccessDeniedException.class, () -> {
             adminService.requireAdmin();
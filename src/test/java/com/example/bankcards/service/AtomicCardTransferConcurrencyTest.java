@@ -0,0 +1,10 @@
+package com.example.bankcards.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Тот же стресс-тест для режима условных UPDATE.
+ */
+@TestPropertySource(properties = "card.transfer.mode=atomic")
+class AtomicCardTransferConcurrencyTest extends CardTransferConcurrencyTest {
+}
@@ -0,0 +1,86 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "card.expiry.chunk-size=2")
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+class CardExpirySweeperTest {
+
+    @Autowired
+    private CardExpirySweeper cardExpirySweeper;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        testFixtures.clear();
+        owner = testFixtures.user("expiry", "password", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("Sweep should expire only active cards whose expiry month has passed, chunk by chunk")
+    void sweep_shouldExpireOnlyOverdueActiveCards() {
+        // Arrange
+        UUID lastYear = save("1111", 2026, 12, Card.CardStatus.ACTIVE);
+        UUID earlierMonth = save("2222", 2027, 1, Card.CardStatus.ACTIVE);
+        UUID previousMonth = save("3333", 2027, 5, Card.CardStatus.ACTIVE);
+        UUID currentMonth = save("4444", 2027, 6, Card.CardStatus.ACTIVE);
+        UUID future = save("5555", 2030, 1, Card.CardStatus.ACTIVE);
+        UUID blocked = save("6666", 2026, 1, Card.CardStatus.BLOCKED);
+        DistributionSummary chunkRows = meterRegistry.get("card.expiry.sweep.rows").summary();
+        long chunksBefore = chunkRows.count();
+
+        // Act
+        int expired = cardExpirySweeper.sweep(YearMonth.of(2027, 6));
+
+        // Assert: три карты при порции 2 — порции по 2 и 1 строке, неполная порция завершает проход
+        assertEquals(3, expired);
+        assertEquals(2, chunkRows.count() - chunksBefore);
+        assertEquals(Card.CardStatus.EXPIRED, status(lastYear));
+        assertEquals(Card.CardStatus.EXPIRED, status(earlierMonth));
+        assertEquals(Card.CardStatus.EXPIRED, status(previousMonth));
+        assertEquals(Card.CardStatus.ACTIVE, status(currentMonth));
+        assertEquals(Card.CardStatus.ACTIVE, status(future));
+        assertEquals(Card.CardStatus.BLOCKED, status(blocked));
+        assertEquals(0, cardExpirySweeper.sweep(YearMonth.of(2027, 6)));
+    }
+
+    private UUID save(String last4, int expiryYear, int expiryMonth, Card.CardStatus status) {
+        return cardRepository.save(testFixtures.cardBuilder(owner, last4)
+                .expiryMonth(expiryMonth)
+                .expiryYear(expiryYear)
+                .status(status)
+                .build()).getId();
+    }
+
+    private Card.CardStatus status(UUID cardId) {
+        return cardRepository.findById(cardId).orElseThrow().getStatus();
+    }
+}
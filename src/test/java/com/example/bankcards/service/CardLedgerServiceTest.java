@@ -0,0 +1,127 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardLedgerRepository;
+import com.example.bankcards.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "card.ledger.compaction-interval=1h")
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+class CardLedgerServiceTest {
+
+    @Autowired
+    private CardLedgerService cardLedgerService;
+
+    @Autowired
+    private CardLedgerRepository cardLedgerRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    private Card from;
+    private Card to;
+
+    @BeforeEach
+    void setUp() {
+        testFixtures.clear();
+        User owner = testFixtures.user("ledger", "password", "ROLE_USER");
+        from = testFixtures.card(owner, "1111", Money.parse("1000.00"));
+        to = testFixtures.card(owner, "2222", Money.parse("500.00"));
+    }
+
+    @Test
+    @DisplayName("Recorded entries should be read explicitly and folded into the snapshot by compaction")
+    void recordAndCompact_shouldKeepEffectiveBalance() {
+        // Arrange
+        transactionOperations.executeWithoutResult(tx -> {
+            cardLedgerService.record(UUID.randomUUID(), from.getId(), to.getId(), Money.parse("100.00"));
+            cardLedgerService.record(UUID.randomUUID(), to.getId(), from.getId(), Money.parse("30.00"));
+        });
+
+        // Act & Assert: до свёртки снимок не изменён, дельта читается отдельно, списки показывают снимок
+        Card unfolded = cardRepository.findById(from.getId()).orElseThrow();
+        assertEquals(Money.parse("1000.00"), unfolded.getBalance());
+        assertEquals(Money.parse("1000.00"), unfolded.getEffectiveBalance());
+        assertEquals(Money.parse("-70.00"), cardLedgerService.pendingDelta(from.getId()));
+        assertTrue(cardRepository.findAllCardDtos(Pageable.unpaged()).stream()
+                .map(CardDto::balance)
+                .anyMatch(balance -> new BigDecimal("500.00").compareTo(balance) == 0));
+
+        assertEquals(4, cardLedgerService.compact());
+
+        // Assert: после свёртки снимок совпадает с фактическим балансом
+        Card folded = cardRepository.findById(from.getId()).orElseThrow();
+        assertEquals(Money.parse("930.00"), folded.getBalance());
+        assertEquals(Money.ZERO, cardLedgerService.pendingDelta(from.getId()));
+        assertEquals(Money.parse("570.00"), cardRepository.findById(to.getId()).orElseThrow().getBalance());
+        assertEquals(4, cardLedgerRepository.count());
+        assertEquals(0, cardLedgerService.compact());
+    }
+
+    @Test
+    @DisplayName("Pending deltas of locked cards should be re-read by a separate query")
+    void refreshPendingDeltas_shouldReadUnfoldedEntriesOfLockedCards() {
+        // Arrange
+        transactionOperations.executeWithoutResult(tx ->
+                cardLedgerService.record(UUID.randomUUID(), from.getId(), to.getId(), Money.parse("100.00")));
+
+        // Act
+        List<Card> locked = transactionOperations.execute(tx -> {
+            List<Card> cards = cardRepository.findAllByIdInForUpdate(List.of(from.getId(), to.getId()));
+            cardLedgerService.refreshPendingDeltas(cards);
+            return cards;
+        });
+
+        // Assert
+        Map<UUID, Money> effective = locked.stream().collect(Collectors.toMap(Card::getId, Card::getEffectiveBalance));
+        assertEquals(Money.parse("900.00"), effective.get(from.getId()));
+        assertEquals(Money.parse("600.00"), effective.get(to.getId()));
+        assertEquals(Money.parse("-100.00"), cardLedgerService.pendingDelta(from.getId()));
+        cardLedgerService.compact();
+        assertEquals(Money.ZERO, cardLedgerService.pendingDelta(from.getId()));
+    }
+
+    @Test
+    @DisplayName("Startup compaction should fold every leftover entry before the application serves requests")
+    void afterSingletonsInstantiated_shouldFoldAllLeftoverEntries() {
+        // Arrange
+        transactionOperations.executeWithoutResult(tx ->
+                cardLedgerService.record(UUID.randomUUID(), from.getId(), to.getId(), Money.parse("100.00")));
+
+        // Act
+        cardLedgerService.afterSingletonsInstantiated();
+
+        // Assert
+        assertEquals(Money.parse("900.00"), cardRepository.findById(from.getId()).orElseThrow().getBalance());
+        assertEquals(Money.parse("600.00"), cardRepository.findById(to.getId()).orElseThrow().getBalance());
+        assertEquals(0, cardLedgerService.compact());
+    }
+}
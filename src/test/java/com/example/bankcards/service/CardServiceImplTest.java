@@ -1,8 +1,10 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.CardMapper;
 import com.example.bankcards.dto.CreateCardRequest;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.UserNotFoundException;
@@ -36,6 +38,8 @@ class CardServiceImplTest {
     private AdminService adminService;
     @Mock
     private UserService userService;
+    @Mock
+    private CardLedgerService cardLedgerService;
 
     @InjectMocks
     private CardServiceImpl cardService;
@@ -69,7 +73,7 @@ class CardServiceImplTest {
         testCard.setCardNumberEnc("1234123412341234");
         testCard.setLast4("1234");
         testCard.setOwner(cardOwner);
-        testCard.setBalance(new BigDecimal("1000.00"));
+        testCard.setBalance(Money.parse("1000.00"));
         testCard.setStatus(Card.CardStatus.ACTIVE);
 
         createCardRequest = new CreateCardRequest(ownerId, "enc123", "1234", "Test Holder", 12, 2025, "USD", BigDecimal.TEN);
@@ -102,7 +106,7 @@ class CardServiceImplTest {
         assertNotNull(result);
         assertEquals(cardOwner, savedCard.getOwner());
         assertEquals("1234", savedCard.getLast4());
-        assertEquals(0, BigDecimal.TEN.compareTo(savedCard.getBalance()));
+        assertEquals(Money.parse("10.00"), savedCard.getBalance());
         assertEquals(Card.CardStatus.ACTIVE, savedCard.getStatus());
     }
 
@@ -157,26 +161,26 @@ class CardServiceImplTest {
     @DisplayName("ADMIN: deleteCard should succeed for existing card")
     void deleteCard_shouldSucceed_forExistingCard() {
         // Arrange
-        when(cardRepository.existsById(cardId)).thenReturn(true);
+        when(cardRepository.deleteCardById(cardId)).thenReturn(1);
 
         // Act
         cardService.deleteCard(cardId);
 
         // Assert
         verify(adminService).requireAdmin();
-        verify(cardRepository).deleteById(cardId);
+        verify(cardRepository).deleteCardById(cardId);
+        verify(cardRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("ADMIN: deleteCard should throw CardNotFoundException for non-existent card")
     void deleteCard_shouldThrowException_forNonExistentCard() {
         // Arrange
-        when(cardRepository.existsById(cardId)).thenReturn(false);
+        when(cardRepository.deleteCardById(cardId)).thenReturn(0);
 
         // Act & Assert
         assertThrows(CardNotFoundException.class, () -> cardService.deleteCard(cardId));
         verify(adminService).requireAdmin();
-        verify(cardRepository, never()).deleteById(any());
     }
 
     @Test
@@ -184,11 +188,11 @@ class CardServiceImplTest {
     void getAllCards_shouldReturnPageOfCards() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
-        List<Card> cardList = List.of(testCard);
-        Page<Card> cardPage = new PageImpl<>(cardList, pageable, cardList.size());
+        List<CardDto> cardList = List.of(CardMapper.toDto(testCard));
+        Page<CardDto> cardPage = new PageImpl<>(cardList, pageable, cardList.size());
 
         mockedSortingUtils.when(() -> SortingUtils.getSort("id:asc")).thenReturn(Sort.by("id"));
-        when(cardRepository.findAll(any(Pageable.class))).thenReturn(cardPage);
+        when(cardRepository.findAllCardDtos(any(Pageable.class))).thenReturn(cardPage);
 
         // Act
         Page<CardDto> result = cardService.getAllCards(0, 10, "id:asc");
@@ -196,7 +200,7 @@ class CardServiceImplTest {
         // Assert
         verify(adminService).requireAdmin();
         assertEquals(1, result.getTotalElements());
-        assertEquals(testCard.getBalance(), result.getContent().get(0).balance());
+        assertEquals(testCard.getBalance().toBigDecimal(), result.getContent().get(0).balance());
     }
 
     // ===== USER TESTS =====
@@ -206,20 +210,20 @@ class CardServiceImplTest {
     void getUserCards_shouldReturnCardsForCurrentUser() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
-        List<Card> cardList = List.of(testCard);
-        Page<Card> cardPage = new PageImpl<>(cardList, pageable, cardList.size());
+        List<CardDto> cardList = List.of(CardMapper.toDto(testCard));
+        Page<CardDto> cardPage = new PageImpl<>(cardList, pageable, cardList.size());
 
-        when(userService.getCurrentUser()).thenReturn(cardOwner);
+        when(userService.getCurrentUserReference()).thenReturn(cardOwner);
         mockedSortingUtils.when(() -> SortingUtils.getSort("id:asc")).thenReturn(Sort.by("id"));
-        when(cardRepository.findByOwner(eq(cardOwner), any(Pageable.class))).thenReturn(cardPage);
+        when(cardRepository.findCardDtosByOwner(eq(cardOwner), any(Pageable.class))).thenReturn(cardPage);
 
         // Act
         Page<CardDto> result = cardService.getUserCards(0, 10, "id:asc");
 
         // Assert
         assertEquals(1, result.getTotalElements());
-        assertEquals(testCard.getBalance(), result.getContent().get(0).balance());
-        verify(cardRepository).findByOwner(eq(cardOwner), any(Pageable.class));
+        assertEquals(testCard.getBalance().toBigDecimal(), result.getContent().get(0).balance());
+        verify(cardRepository).findCardDtosByOwner(eq(cardOwner), any(Pageable.class));
     }
 
     @Test
@@ -227,7 +231,7 @@ class CardServiceImplTest {
     void requestBlockCard_shouldSucceed_forCardOwner() {
         // Arrange
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(testCard));
-        when(userService.getCurrentUser()).thenReturn(cardOwner);
+        when(userService.getCurrentUserReference()).thenReturn(cardOwner);
         when(cardRepository.save(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -246,7 +250,7 @@ class CardServiceImplTest {
     void requestBlockCard_shouldThrowException_forNonOwner() {
         // Arrange
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(testCard));
-        when(userService.getCurrentUser()).thenReturn(otherUser);
+        when(userService.getCurrentUserReference()).thenReturn(otherUser);
 
         // Act & Assert
         assertThrows(AccessDeniedException.class, () -> cardService.requestBlockCard(cardId));
@@ -261,7 +265,7 @@ class CardServiceImplTest {
 
         // Act & Assert
         assertThrows(CardNotFoundException.class, () -> cardService.requestBlockCard(cardId));
-        verify(userService, never()).getCurrentUser();
+        verify(userService, never()).getCurrentUserReference();
         verify(cardRepository, never()).save(any());
     }
 
@@ -270,13 +274,14 @@ class CardServiceImplTest {
     void getBalance_shouldSucceed_forCardOwner() {
         // Arrange
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(testCard));
-        when(userService.getCurrentUser()).thenReturn(cardOwner);
+        when(userService.getCurrentUserReference()).thenReturn(cardOwner);
+        when(cardLedgerService.pendingDelta(cardId)).thenReturn(Money.parse("-50.00"));
 
         // Act
-        BigDecimal balance = cardService.getBalance(cardId);
+        Money balance = cardService.getBalance(cardId);
 
         // Assert
-        assertEquals(0, new BigDecimal("1000.00").compareTo(balance));
+        assertEquals(Money.parse("950.00"), balance);
     }
 
     @Test
@@ -284,7 +289,7 @@ class CardServiceImplTest {
     void getBalance_shouldThrowException_forNonOwner() {
         // Arrange
         when(cardRepository.findById(cardId)).thenReturn(Optional.of(testCard));
-        when(userService.getCurrentUser()).thenReturn(otherUser);
+        when(userService.getCurrentUserReference()).thenReturn(otherUser);
 
         // Act & Assert
         assertThrows(AccessDeniedException.class, () -> cardService.getBalance(cardId));
@@ -298,7 +303,7 @@ class CardServiceImplTest {
 
         // Act & Assert
         assertThrows(CardNotFoundException.class, () -> cardService.getBalance(cardId));
-        verify(userService, never()).getCurrentUser();
+        verify(userService, never()).getCurrentUserReference();
     }
 
     // ===== HELPER METHOD TESTS =====
@@ -346,6 +351,6 @@ class CardServiceImplTest {
         verify(cardRepository).save(cardCaptor.capture());
         Card savedCard = cardCaptor.getValue();
 
-        assertEquals(0, BigDecimal.ZERO.compareTo(savedCard.getBalance()));
+        assertEquals(Money.ZERO, savedCard.getBalance());
     }
 }
@@ -0,0 +1,131 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Параллельные переводы по небольшому набору карт: ни одно обновление баланса не должно потеряться.
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+class CardTransferConcurrencyTest {
+
+    private static final int CARDS = 6;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 2000;
+    private static final Money INITIAL_BALANCE = Money.parse("1000.00");
+
+    @Autowired
+    private CardTransferService cardTransferService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardLedgerService cardLedgerService;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    private User owner;
+    private List<UUID> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        testFixtures.clear();
+        owner = testFixtures.user("stress", "password", "ROLE_USER");
+        cardIds = testFixtures.cards(owner, CARDS, INITIAL_BALANCE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Concurrent transfers in both directions should conserve every card balance")
+    void concurrentTransfers_shouldNotLoseUpdates() throws Exception {
+        // Arrange
+        AuthenticatedUser principal = new AuthenticatedUser(owner.getId(), owner.getUsername(),
+                User.UserStatus.ACTIVE, Set.of("ROLE_USER"));
+        Map<UUID, Money> expectedDelta = new ConcurrentHashMap<>();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            futures.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                UUID from = cardIds.get(random.nextInt(CARDS));
+                UUID to = cardIds.get(random.nextInt(CARDS));
+                while (to.equals(from)) {
+                    to = cardIds.get(random.nextInt(CARDS));
+                }
+                Money amount = Money.ofMinor(random.nextInt(1, 5000));
+                try {
+                    cardTransferService.transferBetweenOwnCards(from, to, amount.toString());
+                    expectedDelta.merge(from, amount.negate(), Money::plus);
+                    expectedDelta.merge(to, amount, Money::plus);
+                    succeeded.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        // Assert
+        assertEquals(TRANSFERS, succeeded.get() + rejected.get());
+        Money total = Money.ZERO;
+        for (Card card : cardRepository.findAllById(cardIds)) {
+            Money expected = INITIAL_BALANCE.plus(expectedDelta.getOrDefault(card.getId(), Money.ZERO));
+            Money effective = card.getBalance().plus(cardLedgerService.pendingDelta(card.getId()));
+            assertEquals(expected, effective, "Lost update on card " + card.getId());
+            assertFalse(effective.isNegative());
+            total = total.plus(effective);
+        }
+        assertEquals(Money.ofMinor(INITIAL_BALANCE.minorUnits() * CARDS), total);
+    }
+}
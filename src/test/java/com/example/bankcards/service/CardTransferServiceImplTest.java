@@ -1,22 +1,36 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AsyncTransferStatus;
+import com.example.bankcards.dto.TransferRequest;
+import com.example.bankcards.dto.TransferResult;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardNotActiveException;
 import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.ErrorMessage;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,7 +46,17 @@ class CardTransferServiceImplTest {
     @Mock
     private UserService userService;
 
-    @InjectMocks
+    @Mock
+    private CardLedgerService cardLedgerService;
+
+    @Mock
+    private ObjectProvider<ShardedTransferExecutor> asyncExecutorProvider;
+
+    @Mock
+    private ShardedTransferExecutor asyncExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private CardTransferServiceImpl cardTransferService;
 
     @Captor
@@ -46,20 +70,23 @@ class CardTransferServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardTransferService = transferService(CardTransferServiceImpl.TransferMode.ENTITY);
+
         currentUser = new User();
         currentUser.setUsername("testuser");
 
         fromCardId = UUID.randomUUID();
         fromCard = new Card();
         fromCard.setId(fromCardId);
-        fromCard.setBalance(new BigDecimal("1000.00"));
+        fromCard.setBalance(Money.parse("1000.00"));
         fromCard.setStatus(Card.CardStatus.ACTIVE);
         fromCard.setOwner(currentUser);
 
         toCardId = UUID.randomUUID();
         toCard = new Card();
         toCard.setId(toCardId);
-        toCard.setBalance(new BigDecimal("500.00"));
+        toCard.setBalance(Money.parse("500.00"));
         toCard.setStatus(Card.CardStatus.ACTIVE);
         toCard.setOwner(currentUser);
     }
@@ -69,9 +96,9 @@ class CardTransferServiceImplTest {
     void transferBetweenOwnCards_shouldSucceed_withValidData() {
         // Arrange
         String amount = "100.00";
-        when(userService.getCurrentUser()).thenReturn(currentUser);
-        when(cardRepository.findByIdAndOwner(fromCardId, currentUser)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdAndOwner(toCardId, currentUser)).thenReturn(Optional.of(toCard));
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenReturn(List.of(fromCard, toCard));
 
         // Act
         cardTransferService.transferBetweenOwnCards(fromCardId, toCardId, amount);
@@ -83,8 +110,8 @@ class CardTransferServiceImplTest {
         Card savedFromCard = savedCards.stream().filter(c -> c.getId().equals(fromCardId)).findFirst().orElseThrow();
         Card savedToCard = savedCards.stream().filter(c -> c.getId().equals(toCardId)).findFirst().orElseThrow();
 
-        assertEquals(0, new BigDecimal("900.00").compareTo(savedFromCard.getBalance()), "From-card balance is incorrect");
-        assertEquals(0, new BigDecimal("600.00").compareTo(savedToCard.getBalance()), "To-card balance is incorrect");
+        assertEquals(Money.parse("900.00"), savedFromCard.getBalance(), "From-card balance is incorrect");
+        assertEquals(Money.parse("600.00"), savedToCard.getBalance(), "To-card balance is incorrect");
     }
 
     @Test
@@ -111,9 +138,9 @@ class CardTransferServiceImplTest {
     void transferBetweenOwnCards_shouldThrowException_forInsufficientFunds() {
         // Arrange
         String amount = "2000.00"; // More than balance
-        when(userService.getCurrentUser()).thenReturn(currentUser);
-        when(cardRepository.findByIdAndOwner(fromCardId, currentUser)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdAndOwner(toCardId, currentUser)).thenReturn(Optional.of(toCard));
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenReturn(List.of(fromCard, toCard));
 
         // Act & Assert
         IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
@@ -128,8 +155,9 @@ class CardTransferServiceImplTest {
     void transferBetweenOwnCards_shouldThrowException_whenFromCardNotFound() {
         // Arrange
         String amount = "100.00";
-        when(userService.getCurrentUser()).thenReturn(currentUser);
-        when(cardRepository.findByIdAndOwner(fromCardId, currentUser)).thenReturn(Optional.empty());
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenReturn(List.of(toCard));
 
         // Act & Assert
         CardNotFoundException exception = assertThrows(CardNotFoundException.class, () ->
@@ -144,9 +172,9 @@ class CardTransferServiceImplTest {
     void transferBetweenOwnCards_shouldThrowException_whenToCardNotFound() {
         // Arrange
         String amount = "100.00";
-        when(userService.getCurrentUser()).thenReturn(currentUser);
-        when(cardRepository.findByIdAndOwner(fromCardId, currentUser)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdAndOwner(toCardId, currentUser)).thenReturn(Optional.empty());
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenReturn(List.of(fromCard));
 
         // Act & Assert
         CardNotFoundException exception = assertThrows(CardNotFoundException.class, () ->
@@ -161,8 +189,9 @@ class CardTransferServiceImplTest {
     void transferBetweenOwnCards_shouldThrowException_whenFromCardNotOwned() {
         // Arrange
         String amount = "100.00";
-        when(userService.getCurrentUser()).thenReturn(currentUser);
-        when(cardRepository.findByIdAndOwner(fromCardId, currentUser)).thenReturn(Optional.empty());
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenReturn(List.of(toCard));
 
         // Act & Assert
         assertThrows(CardNotFoundException.class, () ->
@@ -176,15 +205,307 @@ class CardTransferServiceImplTest {
     void transferBetweenOwnCards_shouldThrowException_whenToCardNotOwned() {
         // Arrange
         String amount = "100.00";
-        when(userService.getCurrentUser()).thenReturn(currentUser);
-        when(cardRepository.findByIdAndOwner(fromCardId, currentUser)).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findByIdAndOwner(toCardId, currentUser)).thenReturn(Optional.empty());
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenReturn(List.of(fromCard));
 
         // Act & Assert
         assertThrows(CardNotFoundException.class, () ->
                 cardTransferService.transferBetweenOwnCards(fromCardId, toCardId, amount));
 
-        // Verify both ownership checks were attempted
         verify(cardRepository, never()).saveAll(any());
     }
+
+    @Test
+    @DisplayName("transferBetweenOwnCards should reject transfer to the same card")
+    void transferBetweenOwnCards_shouldThrowException_forSameCard() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                cardTransferService.transferBetweenOwnCards(fromCardId, fromCardId, "100.00"));
+
+        assertEquals("Cannot transfer to the same card", exception.getMessage());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    @DisplayName("transferBetweenOwnCards should retry after a lock failure and then succeed")
+    void transferBetweenOwnCards_shouldRetry_afterLockFailure() {
+        // Arrange
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenThrow(new CannotAcquireLockException("lock timeout"))
+                .thenReturn(List.of(fromCard, toCard));
+
+        // Act
+        cardTransferService.transferBetweenOwnCards(fromCardId, toCardId, "100.00");
+
+        // Assert
+        assertEquals(Money.parse("900.00"), fromCard.getBalance());
+        assertEquals(Money.parse("600.00"), toCard.getBalance());
+        assertEquals(1.0, meterRegistry.counter("card.transfer.retries").count());
+        assertEquals(2, meterRegistry.timer("card.transfer.lock.wait", "mode", "entity").count());
+    }
+
+    @Test
+    @DisplayName("transferBetweenOwnCards should give up after max attempts")
+    void transferBetweenOwnCards_shouldFail_whenRetriesExhausted() {
+        // Arrange
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        // Act & Assert
+        assertThrows(CannotAcquireLockException.class, () ->
+                cardTransferService.transferBetweenOwnCards(fromCardId, toCardId, "100.00"));
+
+        verify(cardRepository, times(3)).findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser);
+        verify(cardRepository, never()).saveAll(any());
+        assertEquals(2.0, meterRegistry.counter("card.transfer.retries").count());
+        assertEquals(1.0, meterRegistry.counter("card.transfer.retries.exhausted").count());
+    }
+
+    @Test
+    @DisplayName("atomic mode should debit and credit with conditional updates in lock order")
+    void transferBetweenOwnCards_atomic_shouldUpdateInLockOrder() {
+        // Arrange
+        CardTransferServiceImpl atomicService = transferService(CardTransferServiceImpl.TransferMode.ATOMIC);
+        UUID ownerId = UUID.randomUUID();
+        UUID low = new UUID(0x1L, 0L);
+        UUID high = new UUID(0x8000000000000000L, 0L); // отрицательный как long, но больше в беззнаковом порядке
+        BigDecimal amount = new BigDecimal("100.00");
+        when(userService.getCurrentIdentity()).thenReturn(identity(ownerId));
+        when(cardRepository.debitIfActive(high, ownerId, amount)).thenReturn(1);
+        when(cardRepository.creditIfActive(low, ownerId, amount)).thenReturn(1);
+
+        // Act
+        atomicService.transferBetweenOwnCards(high, low, "100.00");
+
+        // Assert
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).creditIfActive(low, ownerId, amount);
+        inOrder.verify(cardRepository).debitIfActive(high, ownerId, amount);
+        verify(cardRepository, never()).findStatusByIdAndOwnerId(any(), any());
+        verify(cardRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("atomic mode should report insufficient funds when the debit updates no rows")
+    void transferBetweenOwnCards_atomic_shouldThrowException_forInsufficientFunds() {
+        // Arrange
+        CardTransferServiceImpl atomicService = transferService(CardTransferServiceImpl.TransferMode.ATOMIC);
+        UUID ownerId = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("2000.00");
+        when(userService.getCurrentIdentity()).thenReturn(identity(ownerId));
+        lenient().when(cardRepository.creditIfActive(toCardId, ownerId, amount)).thenReturn(1);
+        when(cardRepository.debitIfActive(fromCardId, ownerId, amount)).thenReturn(0);
+        when(cardRepository.findStatusByIdAndOwnerId(fromCardId, ownerId)).thenReturn(Optional.of(Card.CardStatus.ACTIVE));
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                atomicService.transferBetweenOwnCards(fromCardId, toCardId, "2000.00"));
+        assertEquals("Insufficient funds", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("atomic mode should report a blocked card when its update affects no rows")
+    void transferBetweenOwnCards_atomic_shouldThrowException_forBlockedCard() {
+        // Arrange
+        CardTransferServiceImpl atomicService = transferService(CardTransferServiceImpl.TransferMode.ATOMIC);
+        UUID ownerId = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("100.00");
+        when(userService.getCurrentIdentity()).thenReturn(identity(ownerId));
+        lenient().when(cardRepository.debitIfActive(fromCardId, ownerId, amount)).thenReturn(1);
+        when(cardRepository.creditIfActive(toCardId, ownerId, amount)).thenReturn(0);
+        when(cardRepository.findStatusByIdAndOwnerId(toCardId, ownerId)).thenReturn(Optional.of(Card.CardStatus.BLOCKED));
+
+        // Act & Assert
+        CardNotActiveException exception = assertThrows(CardNotActiveException.class, () ->
+                atomicService.transferBetweenOwnCards(fromCardId, toCardId, "100.00"));
+        assertEquals("Card is not active: " + toCardId, exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("atomic mode should report a missing card when it is not owned by the user")
+    void transferBetweenOwnCards_atomic_shouldThrowException_whenCardNotOwned() {
+        // Arrange
+        CardTransferServiceImpl atomicService = transferService(CardTransferServiceImpl.TransferMode.ATOMIC);
+        UUID ownerId = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("100.00");
+        when(userService.getCurrentIdentity()).thenReturn(identity(ownerId));
+        when(cardRepository.debitIfActive(fromCardId, ownerId, amount)).thenReturn(0);
+        lenient().when(cardRepository.creditIfActive(toCardId, ownerId, amount)).thenReturn(1);
+        when(cardRepository.findStatusByIdAndOwnerId(fromCardId, ownerId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CardNotFoundException.class, () ->
+                atomicService.transferBetweenOwnCards(fromCardId, toCardId, "100.00"));
+    }
+
+    @Test
+    @DisplayName("transferBatch should apply valid transfers in order and reject the rest per item")
+    void transferBatch_shouldApplyValidTransfersAndRejectInvalidOnes() {
+        // Arrange
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest(fromCardId, toCardId, "900.00"),
+                new TransferRequest(fromCardId, toCardId, "200.00"), // после первого перевода осталось 100.00
+                new TransferRequest(toCardId, toCardId, "1.00"));
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId, toCardId), currentUser))
+                .thenReturn(List.of(fromCard, toCard));
+
+        // Act
+        List<TransferResult> results = cardTransferService.transferBatch(transfers);
+
+        // Assert
+        assertEquals(List.of(TransferResult.Status.APPLIED, TransferResult.Status.REJECTED, TransferResult.Status.REJECTED),
+                results.stream().map(TransferResult::status).toList());
+        assertEquals("Insufficient funds", results.get(1).message());
+        assertEquals("Cannot transfer to the same card", results.get(2).message());
+        assertEquals(Money.parse("100.00"), fromCard.getBalance());
+        assertEquals(Money.parse("1400.00"), toCard.getBalance());
+        verify(cardRepository).findAllByIdInAndOwnerForUpdate(any(), any());
+    }
+
+    @Test
+    @DisplayName("transferBatch should not touch the database when every transfer is invalid")
+    void transferBatch_shouldRejectAllWithoutLocking_whenAllInvalid() {
+        // Arrange
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest(fromCardId, toCardId, "abc"),
+                new TransferRequest(fromCardId, null, "1.00"));
+
+        // Act
+        List<TransferResult> results = cardTransferService.transferBatch(transfers);
+
+        // Assert
+        assertEquals("Invalid amount: abc", results.get(0).message());
+        assertEquals("fromCardId, toCardId and amount are required", results.get(1).message());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    @DisplayName("transferBatch should reject batches larger than the configured limit")
+    void transferBatch_shouldThrowException_whenBatchTooLarge() {
+        // Arrange
+        TransferRequest transfer = new TransferRequest(fromCardId, toCardId, "1.00");
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                cardTransferService.transferBatch(List.of(transfer, transfer, transfer, transfer)));
+        assertEquals("Batch must contain at most 3 transfers", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("submitTransfer should queue the transfer for the current user")
+    void submitTransfer_shouldQueueForCurrentUser() {
+        // Arrange
+        UUID ownerId = UUID.randomUUID();
+        AsyncTransferStatus pending = AsyncTransferStatus.pending(UUID.randomUUID());
+        when(asyncExecutorProvider.getIfAvailable()).thenReturn(asyncExecutor);
+        when(userService.getCurrentIdentity()).thenReturn(identity(ownerId));
+        when(asyncExecutor.submit(ownerId, fromCardId, toCardId, Money.parse("100.00"))).thenReturn(pending);
+
+        // Act
+        AsyncTransferStatus status = cardTransferService.submitTransfer(fromCardId, toCardId, "100.00");
+
+        // Assert
+        assertEquals(pending, status);
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    @DisplayName("submitTransfer should fail with 503 when the async engine is disabled")
+    void submitTransfer_shouldThrowException_whenAsyncDisabled() {
+        // Arrange
+        when(asyncExecutorProvider.getIfAvailable()).thenReturn(null);
+
+        // Act & Assert
+        ErrorMessage exception = assertThrows(ErrorMessage.class, () ->
+                cardTransferService.submitTransfer(fromCardId, toCardId, "100.00"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("getTransferStatus should fail with 404 for an unknown or foreign transfer")
+    void getTransferStatus_shouldThrowException_whenNotFound() {
+        // Arrange
+        UUID ownerId = UUID.randomUUID();
+        UUID transferId = UUID.randomUUID();
+        when(asyncExecutorProvider.getIfAvailable()).thenReturn(asyncExecutor);
+        when(userService.getCurrentIdentity()).thenReturn(identity(ownerId));
+        when(asyncExecutor.getStatus(ownerId, transferId)).thenReturn(null);
+
+        // Act & Assert
+        ErrorMessage exception = assertThrows(ErrorMessage.class, () ->
+                cardTransferService.getTransferStatus(transferId));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+    }
+
+    @Test
+    @DisplayName("ledger mode should lock only the debit card and record both legs")
+    void transferBetweenOwnCards_ledger_shouldRecordLegsWithoutUpdatingCards() {
+        // Arrange
+        CardTransferServiceImpl ledgerService = transferService(CardTransferServiceImpl.TransferMode.LEDGER);
+        UUID ownerId = UUID.randomUUID();
+        currentUser.setId(ownerId);
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId), currentUser)).thenReturn(List.of(fromCard));
+        when(cardRepository.findStatusByIdAndOwnerId(toCardId, ownerId)).thenReturn(Optional.of(Card.CardStatus.ACTIVE));
+
+        // Act
+        ledgerService.transferBetweenOwnCards(fromCardId, toCardId, "100.00");
+
+        // Assert
+        verify(cardLedgerService).record(any(UUID.class), eq(fromCardId), eq(toCardId), eq(Money.parse("100.00")));
+        verify(cardRepository, never()).saveAll(any());
+        assertEquals(Money.parse("1000.00"), fromCard.getBalance());
+    }
+
+    @Test
+    @DisplayName("ledger mode should reject a debit above the effective balance")
+    void transferBetweenOwnCards_ledger_shouldThrowException_forInsufficientFunds() {
+        // Arrange
+        CardTransferServiceImpl ledgerService = transferService(CardTransferServiceImpl.TransferMode.LEDGER);
+        UUID ownerId = UUID.randomUUID();
+        currentUser.setId(ownerId);
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId), currentUser)).thenReturn(List.of(fromCard));
+        when(cardRepository.findStatusByIdAndOwnerId(toCardId, ownerId)).thenReturn(Optional.of(Card.CardStatus.ACTIVE));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () ->
+                ledgerService.transferBetweenOwnCards(fromCardId, toCardId, "1000.01"));
+        verify(cardLedgerService, never()).record(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("ledger mode should check funds against pending legs read after the debit card is locked")
+    void transferBetweenOwnCards_ledger_shouldUsePendingDeltaReadAfterLock() {
+        // Arrange
+        CardTransferServiceImpl ledgerService = transferService(CardTransferServiceImpl.TransferMode.LEDGER);
+        UUID ownerId = UUID.randomUUID();
+        currentUser.setId(ownerId);
+        when(userService.getCurrentUserReference()).thenReturn(currentUser);
+        when(cardRepository.findAllByIdInAndOwnerForUpdate(Set.of(fromCardId), currentUser)).thenReturn(List.of(fromCard));
+        when(cardRepository.findStatusByIdAndOwnerId(toCardId, ownerId)).thenReturn(Optional.of(Card.CardStatus.ACTIVE));
+        doAnswer(invocation -> {
+            fromCard.refreshPendingLedgerDelta(Money.parse("-950.00"));
+            return null;
+        }).when(cardLedgerService).refreshPendingDeltas(List.of(fromCard));
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                ledgerService.transferBetweenOwnCards(fromCardId, toCardId, "100.00"));
+        assertEquals("Insufficient funds", exception.getMessage());
+        verify(cardLedgerService, never()).record(any(), any(), any(), any());
+    }
+
+    private CardTransferServiceImpl transferService(CardTransferServiceImpl.TransferMode mode) {
+        return new CardTransferServiceImpl(cardRepository, cardLedgerService, userService,
+                TransactionOperations.withoutTransaction(), asyncExecutorProvider, meterRegistry, mode, 3, Duration.ofMillis(1), 3);
+    }
+
+    private static AuthenticatedUser identity(UUID userId) {
+        return new AuthenticatedUser(userId, "testuser", User.UserStatus.ACTIVE, Set.of("ROLE_USER"));
+    }
 }
@@ -0,0 +1,106 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CustomUserDetails;
+import com.example.bankcards.security.InProcessUserSecurityEventBroadcaster;
+import com.example.bankcards.security.UserDetailsCache;
+import com.example.bankcards.security.UserSecurityEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private InProcessUserSecurityEventBroadcaster broadcaster;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsService userDetailsService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new InProcessUserSecurityEventBroadcaster();
+        meterRegistry = new SimpleMeterRegistry();
+        UserDetailsCache cache = new UserDetailsCache(100, Duration.ofMinutes(5), broadcaster, meterRegistry);
+        userDetailsService = new CustomUserDetailsService(userRepository, cache);
+
+        testUser = new User();
+        testUser.setId(UUID.randomUUID());
+        testUser.setUsername("testuser");
+        testUser.setPassword("encoded");
+        testUser.setStatus(User.UserStatus.ACTIVE);
+        testUser.setRoles(Set.of(new Role(UUID.randomUUID(), "ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername should query the repository once for repeated lookups")
+    void loadUserByUsername_shouldServeRepeatedLookupsFromCache() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        UserDetails first = userDetailsService.loadUserByUsername("testuser");
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals("testuser", second.getUsername());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    @DisplayName("cached snapshot should keep the password after credentials of a returned copy are erased")
+    void loadUserByUsername_shouldReturnFreshCopies() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        CustomUserDetails first = (CustomUserDetails) userDetailsService.loadUserByUsername("testuser");
+        first.eraseCredentials();
+        UserDetails second = userDetailsService.loadUserByUsername("testuser");
+
+        assertNull(first.getPassword());
+        assertEquals("encoded", second.getPassword());
+    }
+
+    @Test
+    @DisplayName("user security event should invalidate the cached entry")
+    void loadUserByUsername_shouldReload_afterSecurityEvent() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        userDetailsService.loadUserByUsername("testuser");
+
+        testUser.setStatus(User.UserStatus.BLOCKED);
+        broadcaster.publish(new UserSecurityEvent(testUser.getId(), "testuser", 1));
+        UserDetails reloaded = userDetailsService.loadUserByUsername("testuser");
+
+        verify(userRepository, times(2)).findByUsername("testuser");
+        assertFalse(reloaded.isAccountNonLocked());
+    }
+
+    @Test
+    @DisplayName("missing users should not be cached")
+    void loadUserByUsername_shouldNotCacheMissingUser() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Тот же стресс-тест для режима журнала; свёртка запускается часто, чтобы шла параллельно с переводами.
+ */
+@TestPropertySource(properties = {
+        "card.transfer.mode=ledger",
+        "card.ledger.compaction-interval=50ms"
+})
+class LedgerCardTransferConcurrencyTest extends CardTransferConcurrencyTest {
+}
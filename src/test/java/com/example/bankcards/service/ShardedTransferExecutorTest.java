@@ -0,0 +1,136 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.TestFixtures;
+import com.example.bankcards.dto.AsyncTransferStatus;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Money;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "card.transfer.async.enabled=true",
+        "card.transfer.async.shards=4",
+        "card.transfer.async.max-batch-size=50"
+})
+@Import(TestFixtures.class)
+@ActiveProfiles("test")
+class ShardedTransferExecutorTest {
+
+    private static final int CARDS = 6;
+    private static final int TRANSFERS = 2000;
+    private static final Money INITIAL_BALANCE = Money.parse("1000.00");
+
+    @Autowired
+    private ShardedTransferExecutor executor;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private TestFixtures testFixtures;
+
+    private User owner;
+    private List<UUID> cardIds;
+
+    @BeforeEach
+    void setUp() {
+        testFixtures.clear();
+        owner = testFixtures.user("async", "password", "ROLE_USER");
+        cardIds = testFixtures.cards(owner, CARDS, INITIAL_BALANCE);
+    }
+
+    @Test
+    @DisplayName("Queued transfers should all complete and conserve every card balance")
+    void submittedTransfers_shouldCompleteWithoutLosingUpdates() throws Exception {
+        // Arrange
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<UUID, TransferLeg> submitted = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < TRANSFERS; i++) {
+            UUID from = cardIds.get(random.nextInt(CARDS));
+            UUID to = cardIds.get(random.nextInt(CARDS));
+            while (to.equals(from)) {
+                to = cardIds.get(random.nextInt(CARDS));
+            }
+            Money amount = Money.ofMinor(random.nextInt(1, 5000));
+            AsyncTransferStatus status = executor.submit(owner.getId(), from, to, amount);
+            assertEquals(AsyncTransferStatus.State.PENDING, status.state());
+            submitted.put(status.transferId(), new TransferLeg(from, to, amount));
+        }
+
+        // Assert
+        Map<UUID, Money> expectedDelta = new HashMap<>();
+        for (Map.Entry<UUID, TransferLeg> entry : submitted.entrySet()) {
+            AsyncTransferStatus status = awaitCompletion(entry.getKey());
+            assertTrue(status.state() == AsyncTransferStatus.State.APPLIED
+                    || status.state() == AsyncTransferStatus.State.REJECTED, "Unexpected state " + status);
+            if (status.state() == AsyncTransferStatus.State.APPLIED) {
+                TransferLeg leg = entry.getValue();
+                expectedDelta.merge(leg.from(), leg.amount().negate(), Money::plus);
+                expectedDelta.merge(leg.to(), leg.amount(), Money::plus);
+            }
+        }
+        Money total = Money.ZERO;
+        for (Card card : cardRepository.findAllById(cardIds)) {
+            Money expected = INITIAL_BALANCE.plus(expectedDelta.getOrDefault(card.getId(), Money.ZERO));
+            assertEquals(expected, card.getBalance(), "Lost update on card " + card.getId());
+            total = total.plus(card.getBalance());
+        }
+        assertEquals(Money.ofMinor(INITIAL_BALANCE.minorUnits() * CARDS), total);
+    }
+
+    @Test
+    @DisplayName("Transfers from another user's card should be rejected and hidden from other users")
+    void submit_foreignCard_shouldBeRejected() throws Exception {
+        // Arrange
+        UUID stranger = UUID.randomUUID();
+
+        // Act
+        AsyncTransferStatus pending = executor.submit(stranger, cardIds.get(0), cardIds.get(1), Money.parse("1.00"));
+        AsyncTransferStatus status = awaitCompletion(stranger, pending.transferId());
+
+        // Assert
+        assertEquals(AsyncTransferStatus.State.REJECTED, status.state());
+        assertEquals("Card not found: " + cardIds.get(0), status.message());
+        assertNull(executor.getStatus(owner.getId(), pending.transferId()));
+    }
+
+    private AsyncTransferStatus awaitCompletion(UUID transferId) throws InterruptedException {
+        return awaitCompletion(owner.getId(), transferId);
+    }
+
+    private AsyncTransferStatus awaitCompletion(UUID ownerId, UUID transferId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (System.currentTimeMillis() < deadline) {
+            AsyncTransferStatus status = executor.getStatus(ownerId, transferId);
+            assertNotNull(status);
+            if (status.state() != AsyncTransferStatus.State.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Transfer " + transferId + " did not complete");
+    }
+
+    private record TransferLeg(UUID from, UUID to, Money amount) {
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticatedUser;
+import com.example.bankcards.security.CurrentUserContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,11 +21,12 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -30,6 +34,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CurrentUserContext currentUserContext;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -74,6 +81,14 @@ class UserServiceImplTest {
         assertEquals(testUsername, currentUsername);
     }
 
+    private void mockSecurityContextWithPrincipal(Object principal) {
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        mockedContext.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+    }
+
     @Test
     @DisplayName("getByUsername should return user when found")
     void getByUsername_shouldReturnUser_whenFound() {
@@ -155,4 +170,74 @@ class UserServiceImplTest {
         // Act & Assert
         assertThrows(UserNotFoundException.class, () -> userService.getCurrentUser());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("getCurrentIdentity should return the identity stored in the request context")
+    void getCurrentIdentity_shouldReturnIdentityFromContext() {
+        // Arrange
+        AuthenticatedUser identity = new AuthenticatedUser(testUserId, testUsername, User.UserStatus.ACTIVE, Set.of("ROLE_USER"));
+        when(currentUserContext.get()).thenReturn(Optional.of(identity));
+
+        // Act
+        AuthenticatedUser result = userService.getCurrentIdentity();
+
+        // Assert
+        assertSame(identity, result);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("getCurrentIdentity should take the identity from the JWT principal and store it")
+    void getCurrentIdentity_shouldResolveIdentityFromPrincipal() {
+        // Arrange
+        AuthenticatedUser identity = new AuthenticatedUser(testUserId, testUsername, User.UserStatus.ACTIVE, Set.of("ROLE_USER"));
+        when(currentUserContext.get()).thenReturn(Optional.empty());
+        mockSecurityContextWithPrincipal(identity);
+
+        // Act
+        AuthenticatedUser result = userService.getCurrentIdentity();
+
+        // Assert
+        assertSame(identity, result);
+        verify(currentUserContext).set(identity);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("getCurrentIdentity should load the user once when the principal carries no id")
+    void getCurrentIdentity_shouldLoadUser_whenPrincipalHasNoId() {
+        // Arrange
+        Role role = new Role(UUID.randomUUID(), "ROLE_ADMIN");
+        testUser.setId(testUserId);
+        testUser.setStatus(User.UserStatus.ACTIVE);
+        testUser.setRoles(Set.of(role));
+        when(currentUserContext.get()).thenReturn(Optional.empty());
+        mockSecurityContext();
+        when(userRepository.findByUsername(testUsername)).thenReturn(Optional.of(testUser));
+
+        // Act
+        AuthenticatedUser result = userService.getCurrentIdentity();
+
+        // Assert
+        assertEquals(testUserId, result.id());
+        assertEquals(testUsername, result.username());
+        assertTrue(result.hasRole("ADMIN"));
+        verify(currentUserContext).set(result);
+    }
+
+    @Test
+    @DisplayName("getCurrentUserReference should return a reference without loading the user")
+    void getCurrentUserReference_shouldReturnReference() {
+        // Arrange
+        AuthenticatedUser identity = new AuthenticatedUser(testUserId, testUsername, User.UserStatus.ACTIVE, Set.of("ROLE_USER"));
+        when(currentUserContext.get()).thenReturn(Optional.of(identity));
+        when(userRepository.getReferenceById(testUserId)).thenReturn(testUser);
+
+        // Act
+        User reference = userService.getCurrentUserReference();
+
+        // Assert
+        assertSame(testUser, reference);
+        verify(userRepository, never()).findByUsername(any());
+    }
+}